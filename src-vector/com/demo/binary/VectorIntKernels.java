@@ -0,0 +1,88 @@
+package com.demo.binary;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Class implementing the kernels of {@link IntKernels} with the Vector API,
+ * processing as many values per instruction as the preferred vector size of
+ * the CPU holds. Only loaded when the jdk.incubator.vector module is present.
+ */
+final class VectorIntKernels implements IntKernels.Kernels {
+
+	private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+	// Ints with as many lanes as LONGS, widened to longs before being added
+	private static final VectorSpecies<Integer> WIDENED = VectorSpecies.of(int.class,
+			VectorShape.forBitSize(LONGS.vectorBitSize() / 2));
+
+	private final IntKernels.ScalarKernels tail = new IntKernels.ScalarKernels();
+
+	@Override
+	public int indexOf(int[] values, int from, int to, int value) {
+		int i = from;
+		for (int bound = from + INTS.loopBound(to - from); i < bound; i += INTS.length()) {
+			VectorMask<Integer> matches = IntVector.fromArray(INTS, values, i).eq(value);
+			if (matches.anyTrue()) {
+				return i + matches.firstTrue();
+			}
+		}
+		return tail.indexOf(values, i, to, value);
+	}
+
+	@Override
+	public int count(int[] values, int from, int to, int value) {
+		int count = 0;
+		int i = from;
+		for (int bound = from + INTS.loopBound(to - from); i < bound; i += INTS.length()) {
+			count += IntVector.fromArray(INTS, values, i).eq(value).trueCount();
+		}
+		return count + tail.count(values, i, to, value);
+	}
+
+	@Override
+	public int countBetween(int[] values, int from, int to, int low, int high) {
+		int count = 0;
+		int i = from;
+		for (int bound = from + INTS.loopBound(to - from); i < bound; i += INTS.length()) {
+			IntVector vector = IntVector.fromArray(INTS, values, i);
+			count += vector.compare(VectorOperators.GE, low).and(vector.compare(VectorOperators.LE, high)).trueCount();
+		}
+		return count + tail.countBetween(values, i, to, low, high);
+	}
+
+	@Override
+	public int min(int[] values, int from, int to) {
+		IntVector min = IntVector.broadcast(INTS, Integer.MAX_VALUE);
+		int i = from;
+		for (int bound = from + INTS.loopBound(to - from); i < bound; i += INTS.length()) {
+			min = min.min(IntVector.fromArray(INTS, values, i));
+		}
+		return Math.min(min.reduceLanes(VectorOperators.MIN), tail.min(values, i, to));
+	}
+
+	@Override
+	public int max(int[] values, int from, int to) {
+		IntVector max = IntVector.broadcast(INTS, Integer.MIN_VALUE);
+		int i = from;
+		for (int bound = from + INTS.loopBound(to - from); i < bound; i += INTS.length()) {
+			max = max.max(IntVector.fromArray(INTS, values, i));
+		}
+		return Math.max(max.reduceLanes(VectorOperators.MAX), tail.max(values, i, to));
+	}
+
+	@Override
+	public long sum(int[] values, int from, int to) {
+		LongVector sum = LongVector.zero(LONGS);
+		int i = from;
+		for (int bound = from + WIDENED.loopBound(to - from); i < bound; i += WIDENED.length()) {
+			IntVector vector = IntVector.fromArray(WIDENED, values, i);
+			sum = sum.add((LongVector) vector.convertShape(VectorOperators.I2L, LONGS, 0));
+		}
+		return sum.reduceLanes(VectorOperators.ADD) + tail.sum(values, i, to);
+	}
+}
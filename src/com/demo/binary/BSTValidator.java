@@ -0,0 +1,194 @@
+package com.demo.binary;
+
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * Class to validate the Binary Search Tree property of a binary tree.
+ *
+ * The validation streams over the tree with a Morris in-order walk, so it uses
+ * O(1) extra space and allocates nothing. Consecutive in-order nodes are
+ * compared; checking stops at the first pair that is out of order and the
+ * offending node, its in-order predecessor and its in-order position are
+ * recorded. The rest of the walk only removes the temporary threads so the tree
+ * is always left unchanged.
+ *
+ * A validator keeps the result of its last run in fields and can be reused for
+ * every validation, but it must not be shared between threads.
+ *
+ * @param <K> The type of the values stored in the tree.
+ */
+public class BSTValidator<K> {
+
+	/**
+	 * Policy describing where nodes holding equal values may be placed.
+	 */
+	public enum DuplicatePolicy {
+		/** Equal values are not allowed anywhere in the tree. */
+		REJECT,
+		/** Equal values are allowed in the left subtree (left <= node < right). */
+		LEFT,
+		/** Equal values are allowed in the right subtree (left < node <= right). */
+		RIGHT,
+		/** Equal values are allowed on either side (left <= node <= right). */
+		ANY
+	}
+
+	private final Comparator<? super K> comparator;
+	private final DuplicatePolicy policy;
+
+	private TreeNode<K> violation;
+	private TreeNode<K> violationPredecessor;
+	private long violationIndex;
+
+	/**
+	 * Constructor to initialize a validator using the natural order of the values
+	 * and rejecting duplicates.
+	 */
+	public BSTValidator() {
+		this(null, DuplicatePolicy.REJECT);
+	}
+
+	/**
+	 * Constructor to initialize a validator using the natural order of the values.
+	 *
+	 * @param policy Where nodes holding equal values may be placed.
+	 */
+	public BSTValidator(DuplicatePolicy policy) {
+		this(null, policy);
+	}
+
+	/**
+	 * Constructor to initialize a validator with a custom ordering.
+	 *
+	 * @param comparator The ordering of the values, or null for the natural order.
+	 * @param policy     Where nodes holding equal values may be placed.
+	 */
+	public BSTValidator(Comparator<? super K> comparator, DuplicatePolicy policy) {
+		this.comparator = comparator;
+		this.policy = Objects.requireNonNull(policy, "policy");
+		violationIndex = -1;
+	}
+
+	/**
+	 * Method to check if the tree is a BST under the configured ordering and
+	 * duplicate policy.
+	 *
+	 * @param root The root node of the tree.
+	 * @return true if the tree is a BST, false otherwise.
+	 */
+	public boolean validate(TreeNode<K> root) {
+		violation = null;
+		violationPredecessor = null;
+		violationIndex = -1;
+
+		TreeNode<K> previous = null;
+		long index = 0;
+		TreeNode<K> current = root;
+		while (current != null) {
+			if (current.left == null) {
+				if (violation == null) {
+					if (previous != null && !isOrdered(previous, current, false)) {
+						record(previous, current, index);
+					}
+					previous = current;
+					index++;
+				}
+				current = current.right;
+			} else {
+				TreeNode<K> predecessor = current.left;
+				while (predecessor.right != null && predecessor.right != current) {
+					predecessor = predecessor.right;
+				}
+				if (predecessor.right == null) {
+					predecessor.right = current;
+					current = current.left;
+				} else {
+					predecessor.right = null; // Remove the thread before visiting
+					if (violation == null) {
+						if (!isOrdered(previous, current, true)) {
+							record(previous, current, index);
+						}
+						previous = current;
+						index++;
+					}
+					current = current.right;
+				}
+			}
+		}
+		return violation == null;
+	}
+
+	/**
+	 * Helper method to check if two consecutive in-order nodes are correctly
+	 * ordered.
+	 *
+	 * When the current node has a left child the previous node is the largest
+	 * value of that left subtree, otherwise the current node is the smallest value
+	 * in the right subtree of the previous node. This is enough to decide on which
+	 * side an equal value sits.
+	 *
+	 * @param previous The in-order predecessor of the current node.
+	 * @param current  The node being visited.
+	 * @param hasLeft  true if the current node has a left child.
+	 * @return true if the pair respects the ordering, false otherwise.
+	 */
+	private boolean isOrdered(TreeNode<K> previous, TreeNode<K> current, boolean hasLeft) {
+		int cmp = Keys.compare(previous.data, current.data, comparator);
+		if (cmp != 0) {
+			return cmp < 0;
+		}
+		switch (policy) {
+		case LEFT:
+			return hasLeft;
+		case RIGHT:
+			return !hasLeft;
+		case ANY:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * Helper method to remember the first violation found.
+	 *
+	 * @param previous The in-order predecessor of the offending node.
+	 * @param current  The offending node.
+	 * @param index    The in-order position of the offending node.
+	 */
+	private void record(TreeNode<K> previous, TreeNode<K> current, long index) {
+		violation = current;
+		violationPredecessor = previous;
+		violationIndex = index;
+	}
+
+	/**
+	 * Method to get the node at which the last validation failed.
+	 *
+	 * @return The offending node, or null if the last validation succeeded.
+	 */
+	public TreeNode<K> getViolation() {
+		return violation;
+	}
+
+	/**
+	 * Method to get the in-order predecessor of the node at which the last
+	 * validation failed.
+	 *
+	 * @return The predecessor node, or null if the last validation succeeded.
+	 */
+	public TreeNode<K> getViolationPredecessor() {
+		return violationPredecessor;
+	}
+
+	/**
+	 * Method to get the in-order position (0 based) of the node at which the last
+	 * validation failed.
+	 *
+	 * @return The in-order position, or -1 if the last validation succeeded.
+	 */
+	public long getViolationIndex() {
+		return violationIndex;
+	}
+}
@@ -3,6 +3,9 @@ package com.demo.binary;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Objects;
 
 /**
@@ -68,7 +71,7 @@ import java.util.Objects;
  * 
  * <p><strong>How to Use:</strong></p>
  * 1. Compile the program:
- *    <pre>javac com/demo/binary/BinaryTree.java</pre>
+ *    <pre>javac com/demo/binary/*.java</pre>
  * 2. Run the program:
  *    <pre>java com.demo.binary.BinaryTree</pre>
  * 3. Follow the menu instructions to perform operations.
@@ -80,16 +83,16 @@ import java.util.Objects;
 /**
  * Class representing a node in the queue.
  */
-class QueueNode {
-	TreeNode node;
-	QueueNode next;
+class QueueNode<K> {
+	TreeNode<K> node;
+	QueueNode<K> next;
 
 	/**
 	 * Constructor to initialize a new queue node with given tree node.
 	 *
 	 * @param node The tree node to be stored in the queue node.
 	 */
-	QueueNode(TreeNode node) {
+	QueueNode(TreeNode<K> node) {
 		this.node = node;
 		next = null;
 	}
@@ -98,10 +101,10 @@ class QueueNode {
 /**
  * Class representing a queue implemented using a linked list.
  */
-class Queue {
+class Queue<K> {
 
-	QueueNode front;
-	QueueNode rear;
+	QueueNode<K> front;
+	QueueNode<K> rear;
 
 	/**
 	 * Constructor to initialize an empty queue.
@@ -116,8 +119,8 @@ class Queue {
 	 *
 	 * @param node The tree node to be added to the queue.
 	 */
-	void enqueue(TreeNode node) {
-		QueueNode newNode = new QueueNode(node);
+	void enqueue(TreeNode<K> node) {
+		QueueNode<K> newNode = new QueueNode<>(node);
 		if (rear == null) {
 			front = rear = newNode;
 			return;
@@ -131,11 +134,11 @@ class Queue {
 	 *
 	 * @return The tree node removed from the queue, or null if the queue is empty.
 	 */
-	TreeNode dequeue() {
+	TreeNode<K> dequeue() {
 		if (front == null) {
 			return null;
 		}
-		TreeNode node = front.node;
+		TreeNode<K> node = front.node;
 		front = front.next;
 		if (front == null) {
 			rear = null;
@@ -153,39 +156,44 @@ class Queue {
 	}
 }
 
-/**
- * Class representing a node in a binary tree.
- */
-class TreeNode {
-	Integer data;
-	TreeNode left;
-	TreeNode right;
-
-	/**
-	 * Constructor to initialize a new node with given data.
-	 *
-	 * @param data The value to be stored in the node.
-	 */
-	TreeNode(Integer data) {
-		this.data = data;
-		left = null;
-		right = null;
-	}
-}
-
 /**
  * Class representing a binary tree with basic operations such as insertion,
  * traversal, search, and depth calculation.
+ *
+ * The tree is generic over the type of its values. Values are ordered by the
+ * comparator of the tree, or by their natural order when it is null; Integer and
+ * Long values are compared as primitives (see {@link Keys}) and the int/long
+ * overloads of the search and BST checks avoid boxing the searched value.
+ *
+ * @param <K> The type of the values stored in the tree.
  */
-public class BinaryTree {
+public class BinaryTree<K> {
 
-	TreeNode root;
+	TreeNode<K> root;
+	final Comparator<? super K> comparator;
+	final NodePool<K> pool;
+	NodeIndex<K> index;
+	MutationLog<K> log;
 
 	/**
-	 * Constructor to initialize an empty binary tree.
+	 * Constructor to initialize an empty binary tree ordered by the natural order
+	 * of its values.
 	 */
 	BinaryTree() {
+		this(null);
+	}
+
+	/**
+	 * Constructor to initialize an empty binary tree with a custom ordering.
+	 *
+	 * @param comparator The ordering of the values, or null for the natural order.
+	 */
+	BinaryTree(Comparator<? super K> comparator) {
 		root = null;
+		this.comparator = comparator;
+		pool = new NodePool<>();
+		index = null;
+		log = null;
 	}
 
 	/**
@@ -194,16 +202,16 @@ public class BinaryTree {
 	 * @return root of the dummy tree
 	 */
 
-	public static TreeNode createDummy() {
+	public static TreeNode<Integer> createDummy() {
 
-		TreeNode root = new TreeNode(10);
-		root.left = new TreeNode(20);
-		root.right = new TreeNode(30);
-		root.left.left = new TreeNode(40);
-		root.left.left.left = new TreeNode(70);
-		root.left.left.right = new TreeNode(80);
-		root.left.right = new TreeNode(50);
-		root.right.left = new TreeNode(60);
+		TreeNode<Integer> root = new TreeNode<>(10);
+		root.left = new TreeNode<>(20);
+		root.right = new TreeNode<>(30);
+		root.left.left = new TreeNode<>(40);
+		root.left.left.left = new TreeNode<>(70);
+		root.left.left.right = new TreeNode<>(80);
+		root.left.right = new TreeNode<>(50);
+		root.right.left = new TreeNode<>(60);
 		System.out.println("Dummy tree Generated");
 		System.out.println("----------------------------------------------------------------------------------");
 		return root;
@@ -217,8 +225,9 @@ public class BinaryTree {
 	 * @param in   BufferedReader for user input.
 	 * @throws IOException If an I/O error occurs.
 	 */
-	public static void insert(BinaryTree tree, Integer data, BufferedReader in) throws IOException {
-		tree.root = insertNode(tree.root, data, in);
+	public static <K> void insert(BinaryTree<K> tree, K data, BufferedReader in) throws IOException {
+		tree.root = insertNode(tree.root, data, in, tree.pool, tree.index, tree.log, tree.log == null ? null : "");
+		checkpointIfDue(tree);
 	}
 
 	/**
@@ -230,9 +239,51 @@ public class BinaryTree {
 	 * @return The updated root node.
 	 * @throws IOException If an I/O error occurs.
 	 */
-	public static TreeNode insertNode(TreeNode root, Integer data, BufferedReader in) throws IOException {
+	public static <K> TreeNode<K> insertNode(TreeNode<K> root, K data, BufferedReader in) throws IOException {
+		return insertNode(root, data, in, null);
+	}
+
+	/**
+	 * Helper method to insert a node into the binary tree, taking the new node
+	 * from a pool.
+	 *
+	 * @param root The root node of the tree.
+	 * @param data The data to insert.
+	 * @param in   BufferedReader for user input.
+	 * @param pool The pool to take the new node from, or null to allocate it.
+	 * @return The updated root node.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	public static <K> TreeNode<K> insertNode(TreeNode<K> root, K data, BufferedReader in, NodePool<K> pool)
+			throws IOException {
+		return insertNode(root, data, in, pool, null, null, null);
+	}
+
+	/**
+	 * Helper method to insert a node into the binary tree, keeping the index of
+	 * the tree current and recording the change in a mutation log.
+	 *
+	 * @param root  The root node of the tree.
+	 * @param data  The data to insert.
+	 * @param in    BufferedReader for user input.
+	 * @param pool  The pool to take the new node from, or null to allocate it.
+	 * @param index The index receiving the new or overwritten node, or null.
+	 * @param log   The log recording the change, or null.
+	 * @param path  The path from the root of the tree to this node, or null when
+	 *              there is no log.
+	 * @return The updated root node.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	static <K> TreeNode<K> insertNode(TreeNode<K> root, K data, BufferedReader in, NodePool<K> pool,
+			NodeIndex<K> index, MutationLog<K> log, String path) throws IOException {
 		if (root == null) {
-			root = new TreeNode(data); // Insert at the current position if null
+			root = newNode(data, pool); // Insert at the current position if null
+			if (index != null) {
+				index.add(root, null);
+			}
+			if (log != null) {
+				log.attach(path, data);
+			}
 			return root;
 		} else {
 			System.out.println("Would you like to insert the data at the left or right of node " + root.data + "?");
@@ -243,12 +294,27 @@ public class BinaryTree {
 							"A node already exists at the left of node " + root.data + ". Overwrite? (yes/no)");
 					String overwriteChoice = in.readLine();
 					if (overwriteChoice.equals("yes")) {
+						if (index != null) {
+							index.changeValue(root.left, data);
+						}
 						root.left.data = data; // Overwrite the existing left node
+						root.left.height = 0;
+						if (log != null) {
+							log.set(path + "L", data);
+						}
 					} else {
-						root.left = insertNode(root.left, data, in); // Recursively insert in the left subtree
+						// Recursively insert in the left subtree
+						root.left = insertNode(root.left, data, in, pool, index, log,
+								log == null ? null : path + "L");
 					}
 				} else {
-					root.left = new TreeNode(data); // Insert new node at left
+					root.left = newNode(data, pool); // Insert new node at left
+					if (index != null) {
+						index.add(root.left, root);
+					}
+					if (log != null) {
+						log.attach(path + "L", data);
+					}
 				}
 			} else if (choice.equals("right")) {
 				if (root.right != null) {
@@ -256,18 +322,215 @@ public class BinaryTree {
 							"A node already exists at the right of node " + root.data + ". Overwrite? (yes/no)");
 					String overwriteChoice = in.readLine();
 					if (overwriteChoice.equals("yes")) {
+						if (index != null) {
+							index.changeValue(root.right, data);
+						}
 						root.right.data = data; // Overwrite the existing right node
+						root.right.height = 0;
+						if (log != null) {
+							log.set(path + "R", data);
+						}
 					} else {
-						root.right = insertNode(root.right, data, in); // Recursively insert in the right subtree
+						// Recursively insert in the right subtree
+						root.right = insertNode(root.right, data, in, pool, index, log,
+								log == null ? null : path + "R");
 					}
 				} else {
-					root.right = new TreeNode(data); // Insert new node at right
+					root.right = newNode(data, pool); // Insert new node at right
+					if (index != null) {
+						index.add(root.right, root);
+					}
+					if (log != null) {
+						log.attach(path + "R", data);
+					}
 				}
 			}
+			root.height = 0; // The subtree below may have grown
 			return root;
 		}
 	}
 
+	/**
+	 * Method to insert a value into an ordered (BST) tree without user input.
+	 * Values equal to an existing node go to its right subtree.
+	 *
+	 * @param tree The binary tree object.
+	 * @param data The data to insert.
+	 * @return The inserted node.
+	 */
+	public static <K> TreeNode<K> insertOrdered(BinaryTree<K> tree, K data) {
+		TreeNode<K> node = newNode(data, tree.pool);
+		StringBuilder path = tree.log != null ? new StringBuilder() : null;
+		TreeNode<K> parent = null;
+		TreeNode<K> current = tree.root;
+		boolean left = false;
+		while (current != null) {
+			parent = current;
+			current.height = 0; // Every node on the path gets a taller subtree
+			left = Keys.compare(data, current.data, tree.comparator) < 0;
+			if (path != null) {
+				path.append(left ? 'L' : 'R');
+			}
+			current = left ? current.left : current.right;
+		}
+		if (parent == null) {
+			tree.root = node;
+		} else if (left) {
+			parent.left = node;
+		} else {
+			parent.right = node;
+		}
+		if (tree.index != null) {
+			tree.index.add(node, parent);
+		}
+		if (path != null) {
+			tree.log.attach(path.toString(), data);
+			checkpointIfDue(tree);
+		}
+		return node;
+	}
+
+	/**
+	 * Helper method to create a node, reusing a pooled node when a pool is given.
+	 *
+	 * @param data The value to be stored in the node.
+	 * @param pool The pool to take the node from, or null to allocate it.
+	 * @return The new node.
+	 */
+	static <K> TreeNode<K> newNode(K data, NodePool<K> pool) {
+		return pool == null ? new TreeNode<>(data) : pool.acquire(data);
+	}
+
+	/**
+	 * Method to delete the entire tree. Its nodes are returned to the pool of the
+	 * tree in O(1) and reused by later insertions.
+	 *
+	 * @param tree The binary tree object.
+	 */
+	public static <K> void clear(BinaryTree<K> tree) {
+		tree.pool.release(tree.root);
+		tree.root = null;
+		if (tree.index != null) {
+			tree.index.clear();
+		}
+		if (tree.log != null) {
+			tree.log.clear();
+			checkpointIfDue(tree);
+		}
+	}
+
+	/**
+	 * Helper method to take a checkpoint of the tree when its mutation log asks
+	 * for one.
+	 *
+	 * @param tree The binary tree object.
+	 */
+	private static <K> void checkpointIfDue(BinaryTree<K> tree) {
+		if (tree.log != null) {
+			tree.log.checkpointIfDue(tree.root);
+		}
+	}
+
+	/**
+	 * Helper method to mark the cached heights of a node and of its ancestors as
+	 * stale after its subtree changed. With an index the walk goes up the parents
+	 * and stops at the first stale node, otherwise the path is found by a search.
+	 *
+	 * @param tree The binary tree object.
+	 * @param node The node whose subtree changed, may be null.
+	 */
+	static <K> void invalidateHeights(BinaryTree<K> tree, TreeNode<K> node) {
+		if (node == null) {
+			return;
+		}
+		if (tree.index != null) {
+			while (node != null && node.height != 0) {
+				node.height = 0;
+				node = tree.index.parentOf(node);
+			}
+			return;
+		}
+		String path = pathOf(tree, node);
+		TreeNode<K> current = tree.root;
+		current.height = 0;
+		for (int i = 0; i < path.length(); i++) {
+			current = path.charAt(i) == 'L' ? current.left : current.right;
+			current.height = 0;
+		}
+	}
+
+	/**
+	 * Helper method to get the path from the root to a node as 'L' and 'R'
+	 * steps, walking up the index when the tree has one.
+	 *
+	 * @param tree The binary tree object.
+	 * @param node A node of the tree.
+	 * @return The path of the node, or null if it is not in the tree.
+	 */
+	static <K> String pathOf(BinaryTree<K> tree, TreeNode<K> node) {
+		StringBuilder path = new StringBuilder();
+		if (tree.index != null) {
+			TreeNode<K> child = node;
+			TreeNode<K> parent;
+			while ((parent = tree.index.parentOf(child)) != null) {
+				path.append(parent.left == child ? 'L' : 'R');
+				child = parent;
+			}
+			return path.reverse().toString();
+		}
+		return findPath(tree.root, node, path) ? path.toString() : null;
+	}
+
+	/**
+	 * Helper method to search a subtree for a node, leaving its path in the
+	 * builder when it is found.
+	 *
+	 * @param current The root node of the subtree.
+	 * @param node    The node to find.
+	 * @param path    The path of the subtree root, extended while searching.
+	 * @return true if the node is found, false otherwise.
+	 */
+	private static <K> boolean findPath(TreeNode<K> current, TreeNode<K> node, StringBuilder path) {
+		if (current == null) {
+			return false;
+		}
+		if (current == node) {
+			return true;
+		}
+		path.append('L');
+		if (findPath(current.left, node, path)) {
+			return true;
+		}
+		path.setCharAt(path.length() - 1, 'R');
+		if (findPath(current.right, node, path)) {
+			return true;
+		}
+		path.setLength(path.length() - 1);
+		return false;
+	}
+
+	/**
+	 * Method to build a {@link NodeIndex} for the tree so that removals locate
+	 * nodes in O(1). The index is kept up to date by every later mutation.
+	 *
+	 * @param tree The binary tree object.
+	 */
+	public static <K> void enableIndex(BinaryTree<K> tree) {
+		tree.index = NodeIndex.build(tree.root);
+	}
+
+	/**
+	 * Method to wait until every change of the tree is durable in its mutation
+	 * log, if it has one.
+	 *
+	 * @param tree The binary tree object.
+	 */
+	public static <K> void sync(BinaryTree<K> tree) {
+		if (tree.log != null) {
+			tree.log.sync();
+		}
+	}
+
 	/**
 	 * Helper method to find the parent of a node in the binary tree.
 	 *
@@ -275,17 +538,17 @@ public class BinaryTree {
 	 * @param searchData The data of the node whose parent is to be found.
 	 * @return The parent node, or null if no parent is found.
 	 */
-	public static TreeNode findParent(TreeNode root, int searchData) {
+	public static <K> TreeNode<K> findParent(TreeNode<K> root, K searchData) {
 		if (root == null || (root.left == null && root.right == null)) {
 			return null;
 		}
 
-		if ((root.left != null && root.left.data == searchData)
-				|| (root.right != null && root.right.data == searchData)) {
+		if ((root.left != null && Objects.equals(root.left.data, searchData))
+				|| (root.right != null && Objects.equals(root.right.data, searchData))) {
 			return root;
 		}
 
-		TreeNode parent = findParent(root.left, searchData);
+		TreeNode<K> parent = findParent(root.left, searchData);
 		if (parent != null) {
 			return parent;
 		}
@@ -300,7 +563,7 @@ public class BinaryTree {
 	 * @param in   BufferedReader for user input.
 	 * @throws IOException If an I/O error occurs.
 	 */
-	public static void deleteNode(BinaryTree tree, int data, BufferedReader in) throws IOException {
+	public static <K> void deleteNode(BinaryTree<K> tree, K data, BufferedReader in) throws IOException {
 		if (tree.root == null) {
 			System.out.println("The tree is empty.");
 			return;
@@ -309,15 +572,14 @@ public class BinaryTree {
 		// Check if the node to delete is the root node
 		if (Objects.equals(tree.root.data, data)) {
 			if (tree.root.left == null && tree.root.right == null) {
-				tree.root = null; // Deleting the root node if it is a leaf
+				clear(tree); // Deleting the root node if it is a leaf
 				System.out.println("Node " + data + " was a leaf and has been deleted.");
 			} else {
 				System.out.println("The node " + data
 						+ " is the root and has children. Are you sure you want to delete the entire tree? (yes/no)");
 				String choice = in.readLine();
 				if (choice.equals("yes")) {
-					tree.root = null; // Deleting the entire tree
-					System.gc();
+					clear(tree); // Deleting the entire tree
 					System.out.println("The tree has been deleted.");
 				} else {
 					System.out.println("Deletion aborted.");
@@ -327,27 +589,37 @@ public class BinaryTree {
 		}
 
 		// Find the parent of the node to be deleted
-		TreeNode parent = findParent(tree.root, data);
+		TreeNode<K> parent = findParent(tree.root, data);
 		if (parent == null) {
 			System.out.println("Node " + data + " not found in the tree.");
 			return;
 		}
 
 		// Determine the child node to be deleted
-		TreeNode nodeToDelete;
+		TreeNode<K> nodeToDelete;
 		if (parent.left != null && Objects.equals(parent.left.data, data)) {
 			nodeToDelete = parent.left;
 		} else {
 			nodeToDelete = parent.right;
 		}
 
+		invalidateHeights(tree, parent);
+
 		// Case 1: Node to delete is a leaf node
 		if (nodeToDelete.left == null && nodeToDelete.right == null) {
+			if (tree.log != null) {
+				tree.log.detach(pathOf(tree, nodeToDelete));
+			}
 			if (parent.left == nodeToDelete) {
 				parent.left = null;
 			} else {
 				parent.right = null;
 			}
+			if (tree.index != null) {
+				tree.index.remove(nodeToDelete);
+			}
+			tree.pool.release(nodeToDelete);
+			checkpointIfDue(tree);
 			System.out.println("Node " + data + " was a leaf and has been deleted.");
 		}
 		// Case 2: Node to delete has children
@@ -356,11 +628,19 @@ public class BinaryTree {
 					+ " has children. Are you sure you want to delete it along with its subtrees? (yes/no)");
 			String choice = in.readLine();
 			if (choice.equals("yes")) {
+				if (tree.log != null) {
+					tree.log.detach(pathOf(tree, nodeToDelete));
+				}
 				if (parent.left == nodeToDelete) {
 					parent.left = null;
 				} else {
 					parent.right = null;
 				}
+				if (tree.index != null) {
+					tree.index.removeSubtree(nodeToDelete);
+				}
+				tree.pool.release(nodeToDelete); // The subtree goes back to the pool in O(1)
+				checkpointIfDue(tree);
 				System.out.println("Node " + data + " and its subtrees have been deleted.");
 			} else {
 				System.out.println("Deletion aborted.");
@@ -368,6 +648,183 @@ public class BinaryTree {
 		}
 	}
 
+	/**
+	 * Method to remove a single node from the binary tree without user input,
+	 * keeping its children in the tree.
+	 *
+	 * The value of the node is replaced by the value of the deepest leaf of its
+	 * subtree, the rightmost one when several are equally deep, and that leaf is
+	 * unlinked. The leaf is the last node of the subtree in level order, so
+	 * removing the root of a complete tree keeps it complete; removing another
+	 * node may not. The leaf is found by following the cached subtree heights:
+	 * when they are up to date the removal costs O(height) once the node is
+	 * located, which is O(1) when the tree has an index, but stale heights below
+	 * the node are refreshed first, which may visit its whole subtree.
+	 *
+	 * @param tree The binary tree object.
+	 * @param data The data of the node to remove.
+	 * @return true if a node was removed, false if it was not found.
+	 */
+	public static <K> boolean remove(BinaryTree<K> tree, K data) {
+		TreeNode<K> node;
+		TreeNode<K> parent;
+		if (tree.index != null && (node = tree.index.find(data)) != null) {
+			parent = tree.index.parentOf(node);
+		} else if (tree.index != null && tree.index.isComplete()) {
+			return false;
+		} else if (tree.root != null && Objects.equals(tree.root.data, data)) {
+			node = tree.root;
+			parent = null;
+		} else {
+			parent = findParent(tree.root, data);
+			if (parent == null) {
+				return false;
+			}
+			node = parent.left != null && Objects.equals(parent.left.data, data) ? parent.left : parent.right;
+		}
+
+		// Find the deepest leaf, going right whenever the right subtree is as deep
+		String path = tree.log != null ? pathOf(tree, node) : null;
+		StringBuilder leafPath = path != null ? new StringBuilder(path) : null;
+		TreeNode<K> leafParent = parent;
+		TreeNode<K> leaf = node;
+		while (leaf.left != null || leaf.right != null) {
+			boolean right = cachedHeight(leaf.right) == cachedHeight(leaf) - 1;
+			leafParent = leaf;
+			if (leafPath != null) {
+				leafPath.append(right ? 'R' : 'L');
+			}
+			leaf = right ? leaf.right : leaf.left;
+		}
+		invalidateHeights(tree, leafParent);
+		if (tree.index != null) {
+			tree.index.remove(leaf);
+			if (leaf != node) {
+				tree.index.changeValue(node, leaf.data);
+			}
+		}
+		if (path != null) {
+			if (leaf != node) {
+				tree.log.set(path, leaf.data);
+			}
+			tree.log.detach(leafPath.toString());
+		}
+		node.data = leaf.data;
+		replaceChild(tree, leafParent, leaf, null);
+		tree.pool.release(leaf);
+		checkpointIfDue(tree);
+		return true;
+	}
+
+	/**
+	 * Method to remove a single node from an ordered (BST) tree without user
+	 * input, keeping its children in the tree.
+	 *
+	 * A node with two children takes the value of its in-order successor, which is
+	 * then unlinked; otherwise the node is replaced by its only child. The node is
+	 * located by descending from the root, or in O(1) when the tree has an index.
+	 *
+	 * @param tree The binary tree object.
+	 * @param data The data of the node to remove.
+	 * @return true if a node was removed, false if it was not found.
+	 */
+	public static <K> boolean removeOrdered(BinaryTree<K> tree, K data) {
+		TreeNode<K> node;
+		TreeNode<K> parent = null;
+		StringBuilder path = tree.log != null ? new StringBuilder() : null;
+		if (tree.index != null && (node = tree.index.find(data)) != null) {
+			parent = tree.index.parentOf(node);
+			invalidateHeights(tree, parent);
+			if (path != null) {
+				path.append(pathOf(tree, node));
+			}
+		} else if (tree.index != null && tree.index.isComplete()) {
+			return false;
+		} else {
+			node = tree.root;
+			while (node != null) {
+				int cmp = Keys.compare(data, node.data, tree.comparator);
+				if (cmp == 0) {
+					break;
+				}
+				parent = node;
+				parent.height = 0; // Only this path can lose height
+				if (path != null) {
+					path.append(cmp < 0 ? 'L' : 'R');
+				}
+				node = cmp < 0 ? node.left : node.right;
+			}
+			if (node == null) {
+				return false;
+			}
+		}
+
+		if (node.left != null && node.right != null) {
+			// Case 1: Two children, move the in-order successor into the node
+			TreeNode<K> successorParent = node;
+			TreeNode<K> successor = node.right;
+			StringBuilder successorPath = path != null ? new StringBuilder(path).append('R') : null;
+			node.height = 0;
+			while (successor.left != null) {
+				successorParent = successor;
+				successorParent.height = 0;
+				successor = successor.left;
+				if (successorPath != null) {
+					successorPath.append('L');
+				}
+			}
+			if (tree.index != null) {
+				tree.index.remove(successor);
+				tree.index.changeValue(node, successor.data);
+			}
+			if (path != null) {
+				tree.log.set(path.toString(), successor.data);
+				tree.log.splice(successorPath.toString());
+			}
+			node.data = successor.data;
+			replaceChild(tree, successorParent, successor, successor.right);
+			successor.right = null;
+			tree.pool.release(successor);
+		} else {
+			// Case 2: At most one child, which takes the place of the node
+			TreeNode<K> child = node.left != null ? node.left : node.right;
+			if (tree.index != null) {
+				tree.index.remove(node);
+			}
+			if (path != null) {
+				tree.log.splice(path.toString());
+			}
+			replaceChild(tree, parent, node, child);
+			node.left = null;
+			node.right = null;
+			tree.pool.release(node);
+		}
+		checkpointIfDue(tree);
+		return true;
+	}
+
+	/**
+	 * Helper method to replace a child of a node, or the root of the tree.
+	 *
+	 * @param tree     The binary tree object.
+	 * @param parent   The parent node, or null to replace the root.
+	 * @param oldChild The child being replaced.
+	 * @param newChild The new child, may be null.
+	 */
+	private static <K> void replaceChild(BinaryTree<K> tree, TreeNode<K> parent, TreeNode<K> oldChild,
+			TreeNode<K> newChild) {
+		if (parent == null) {
+			tree.root = newChild;
+		} else if (parent.left == oldChild) {
+			parent.left = newChild;
+		} else {
+			parent.right = newChild;
+		}
+		if (tree.index != null && newChild != null) {
+			tree.index.setParent(newChild, parent);
+		}
+	}
+
 	/**
 	 * Method to search for a node in the binary tree using pre-order traversal.
 	 *
@@ -375,7 +832,7 @@ public class BinaryTree {
 	 * @param searchData The data to search for.
 	 * @return true if the node is found, false otherwise.
 	 */
-	public static boolean searchNode(TreeNode root, Integer searchData) {
+	public static <K> boolean searchNode(TreeNode<K> root, K searchData) {
 		if (root == null) {
 			return false;
 		}
@@ -389,6 +846,42 @@ public class BinaryTree {
 		return searchNode(root.right, searchData); // Search in the right subtree
 	}
 
+	/**
+	 * Method to search for an int value in the binary tree using pre-order
+	 * traversal, without boxing the searched value or calling equals.
+	 *
+	 * @param root       The root node of the tree.
+	 * @param searchData The data to search for.
+	 * @return true if the node is found, false otherwise.
+	 */
+	public static boolean searchNode(TreeNode<Integer> root, int searchData) {
+		if (root == null) {
+			return false;
+		}
+		if (root.data == searchData) {
+			return true;
+		}
+		return searchNode(root.left, searchData) || searchNode(root.right, searchData);
+	}
+
+	/**
+	 * Method to search for a long value in the binary tree using pre-order
+	 * traversal, without boxing the searched value or calling equals.
+	 *
+	 * @param root       The root node of the tree.
+	 * @param searchData The data to search for.
+	 * @return true if the node is found, false otherwise.
+	 */
+	public static boolean searchNode(TreeNode<Long> root, long searchData) {
+		if (root == null) {
+			return false;
+		}
+		if (root.data == searchData) {
+			return true;
+		}
+		return searchNode(root.left, searchData) || searchNode(root.right, searchData);
+	}
+
 	/**
 	 * Method to handle various tree traversal operations based on user input.
 	 *
@@ -396,7 +889,7 @@ public class BinaryTree {
 	 * @param in   BufferedReader for user input.
 	 * @throws IOException If an I/O error occurs.
 	 */
-	public static void traversal(TreeNode root, BufferedReader in) throws IOException {
+	public static <K> void traversal(TreeNode<K> root, BufferedReader in) throws IOException {
 		if (root == null) {
 			System.out.println("The binary tree is currently empty.");
 			return;
@@ -456,7 +949,7 @@ public class BinaryTree {
 	 *
 	 * @param root The root node of the tree.
 	 */
-	public static void inOrder(TreeNode root) {
+	public static <K> void inOrder(TreeNode<K> root) {
 		if (root != null) {
 			inOrder(root.left); // Traverse the left subtree
 			System.out.print(root.data + " "); // Visit the root node
@@ -469,7 +962,7 @@ public class BinaryTree {
 	 *
 	 * @param root The root node of the tree.
 	 */
-	public static void preOrder(TreeNode root) {
+	public static <K> void preOrder(TreeNode<K> root) {
 		if (root != null) {
 			System.out.print(root.data + " "); // Visit the root node
 			preOrder(root.left); // Traverse the left subtree
@@ -482,7 +975,7 @@ public class BinaryTree {
 	 *
 	 * @param root The root node of the tree.
 	 */
-	public static void postOrder(TreeNode root) {
+	public static <K> void postOrder(TreeNode<K> root) {
 		if (root != null) {
 			postOrder(root.left); // Traverse the left subtree
 			postOrder(root.right); // Traverse the right subtree
@@ -495,17 +988,17 @@ public class BinaryTree {
 	 *
 	 * @param root The root node of the tree.
 	 */
-	public static void levelOrder(TreeNode root) {
+	public static <K> void levelOrder(TreeNode<K> root) {
 		if (root == null) {
 			System.out.println("The binary tree is currently empty.");
 			return;
 		}
 
-		Queue queue = new Queue();
+		Queue<K> queue = new Queue<>();
 		queue.enqueue(root);
 
 		while (!queue.isEmpty()) {
-			TreeNode current = queue.dequeue();
+			TreeNode<K> current = queue.dequeue();
 			System.out.print(current.data + " ");
 
 			if (current.left != null) {
@@ -523,7 +1016,7 @@ public class BinaryTree {
 	 * @param root   The root node of the tree.
 	 * @param prefix indicates the depth of tree(default value is empty String)
 	 */
-	public static void treePrint(TreeNode root, String prefix) {
+	public static <K> void treePrint(TreeNode<K> root, String prefix) {
 		if (root != null) {
 			System.out.println(prefix + root.data + " "); // Visit the root node
 			treePrint(root.left, prefix + "|-"); // Traverse the left subtree
@@ -539,7 +1032,7 @@ public class BinaryTree {
 	 * @throws IOException If an I/O error occurs.
 	 */
 
-	public static void moriss(TreeNode root, BufferedReader in) throws IOException {
+	public static <K> void moriss(TreeNode<K> root, BufferedReader in) throws IOException {
 		if (root == null) {
 			System.out.println("The binary tree is currently empty.");
 			return;
@@ -585,14 +1078,14 @@ public class BinaryTree {
 	 * @param root The root node of the tree.
 	 */
 
-	public static void morissTraversalInOrder(TreeNode root) {
-		TreeNode current = root;
+	public static <K> void morissTraversalInOrder(TreeNode<K> root) {
+		TreeNode<K> current = root;
 		while (current != null) {
 			if (current.left == null) {
 				System.out.print(current.data + " ");
 				current = current.right;
 			} else {
-				TreeNode predecessor = current.left;
+				TreeNode<K> predecessor = current.left;
 				while (predecessor.right != null && predecessor.right != current) {
 					predecessor = predecessor.right;
 				}
@@ -614,15 +1107,15 @@ public class BinaryTree {
 	 * @param root The root node of the tree.
 	 */
 
-	public static void morrisTraversalPreOrder(TreeNode root) {
-		TreeNode current = root;
+	public static <K> void morrisTraversalPreOrder(TreeNode<K> root) {
+		TreeNode<K> current = root;
 
 		while (current != null) {
 			if (current.left == null) {
 				System.out.print(current.data + " ");
 				current = current.right;
 			} else {
-				TreeNode predecessor = current.left;
+				TreeNode<K> predecessor = current.left;
 				while (predecessor.right != null && predecessor.right != current) {
 					predecessor = predecessor.right;
 				}
@@ -643,16 +1136,16 @@ public class BinaryTree {
 	 * 
 	 * @param root
 	 */
-	public static void morrisTraversalPostOrder(TreeNode root) {
-		TreeNode dummyRoot = new TreeNode(0);
+	public static <K> void morrisTraversalPostOrder(TreeNode<K> root) {
+		TreeNode<K> dummyRoot = new TreeNode<>(null);
 		dummyRoot.left = root;
-		TreeNode current = dummyRoot;
+		TreeNode<K> current = dummyRoot;
 
 		while (current != null) {
 			if (current.left == null) {
 				current = current.right;
 			} else {
-				TreeNode predecessor = current.left;
+				TreeNode<K> predecessor = current.left;
 				// Find the rightmost node in the left subtree or the link back to the current
 				// node
 				while (predecessor.right != null && predecessor.right != current) {
@@ -679,10 +1172,10 @@ public class BinaryTree {
 	 * @param reverse index
 	 * @param to      reverse index
 	 */
-	public static void printReverse(TreeNode from, TreeNode to) {
+	public static <K> void printReverse(TreeNode<K> from, TreeNode<K> to) {
 		reversePath(from, to);
 
-		TreeNode current = to;
+		TreeNode<K> current = to;
 		while (true) {
 			System.out.print(current.data + " ");
 			if (current == from)
@@ -700,13 +1193,13 @@ public class BinaryTree {
 	 * @param from reverse index
 	 * @param to   reverse index
 	 */
-	public static void reversePath(TreeNode from, TreeNode to) {
+	public static <K> void reversePath(TreeNode<K> from, TreeNode<K> to) {
 		if (from == to)
 			return;
 
-		TreeNode prev = null;
-		TreeNode current = from;
-		TreeNode next;
+		TreeNode<K> prev = null;
+		TreeNode<K> current = from;
+		TreeNode<K> next;
 
 		while (current != to) {
 			next = current.right;
@@ -724,7 +1217,7 @@ public class BinaryTree {
 	 * @param searchData The data of the node whose siblings are to be found.
 	 * @param parent     The parent node of the current node (initially null).
 	 */
-	public static void findSiblings(TreeNode root, Integer searchData, TreeNode parent) {
+	public static <K> void findSiblings(TreeNode<K> root, K searchData, TreeNode<K> parent) {
 		if (root == null) {
 			System.out.println("The binary tree is currently empty.");
 			return;
@@ -753,7 +1246,7 @@ public class BinaryTree {
 	 * @param root The root node of the tree.
 	 * @return The height of the tree.
 	 */
-	public static int calculateHeight(TreeNode root) {
+	public static <K> int calculateHeight(TreeNode<K> root) {
 		if (root == null) {
 			return 0;
 		}
@@ -762,6 +1255,78 @@ public class BinaryTree {
 		return Math.max(leftHeight, rightHeight) + 1;
 	}
 
+	/**
+	 * Method to get the height of the binary tree from the heights cached in its
+	 * nodes. Only subtrees changed since the last call are recomputed, so
+	 * repeated calls between mutations are O(1).
+	 *
+	 * @param root The root node of the tree.
+	 * @return The height of the tree.
+	 */
+	public static <K> int cachedHeight(TreeNode<K> root) {
+		if (root == null) {
+			return 0;
+		}
+		if (root.height == 0) {
+			refreshSummary(root);
+		}
+		return root.height;
+	}
+
+	/**
+	 * Helper method to recompute the cached height and hash of a stale node,
+	 * refreshing its stale descendants first. The walk is a post-order over its
+	 * own stack that only enters stale nodes, so degenerate trees of any depth
+	 * can be refreshed.
+	 *
+	 * @param node The stale node.
+	 */
+	@SuppressWarnings("unchecked")
+	static <K> void refreshSummary(TreeNode<K> node) {
+		TreeNode<K>[] stack = (TreeNode<K>[]) new TreeNode<?>[32];
+		int size = 0;
+		stack[size++] = node;
+		while (size > 0) {
+			TreeNode<K> top = stack[size - 1];
+			TreeNode<K> stale = top.left != null && top.left.height == 0 ? top.left
+					: top.right != null && top.right.height == 0 ? top.right : null;
+			if (stale != null) {
+				if (size == stack.length) {
+					stack = Arrays.copyOf(stack, size * 2);
+				}
+				stack[size++] = stale;
+				continue;
+			}
+			stack[--size] = null;
+			// Both children are up to date, so these calls do not recompute anything
+			int leftHeight = cachedHeight(top.left);
+			int rightHeight = cachedHeight(top.right);
+			top.hash = TreeDiff.combine(top.data, TreeDiff.hash(top.left), TreeDiff.hash(top.right));
+			top.height = Math.max(leftHeight, rightHeight) + 1;
+		}
+	}
+
+	/**
+	 * Method to calculate the depth of a node, using the depths cached by the
+	 * index of the tree when it has one.
+	 *
+	 * @param tree       The binary tree object.
+	 * @param searchData The data of the node whose depth is to be calculated.
+	 * @return The depth of the node, or -1 if the node is not found.
+	 */
+	public static <K> int cachedDepth(BinaryTree<K> tree, K searchData) {
+		if (tree.index != null) {
+			TreeNode<K> node = tree.index.find(searchData);
+			if (node != null) {
+				return tree.index.depthOf(node);
+			}
+			if (tree.index.isComplete()) {
+				return -1;
+			}
+		}
+		return calculateDepth(tree.root, searchData, 0);
+	}
+
 	/**
 	 * Method to calculate the depth of a node in the binary tree.
 	 *
@@ -770,7 +1335,7 @@ public class BinaryTree {
 	 * @param depth      The current depth (initially 0).
 	 * @return The depth of the node, or -1 if the node is not found.
 	 */
-	public static int calculateDepth(TreeNode root, Integer searchData, int depth) {
+	public static <K> int calculateDepth(TreeNode<K> root, K searchData, int depth) {
 		if (root == null) {
 			return -1;
 		}
@@ -790,7 +1355,7 @@ public class BinaryTree {
 	 * @param root The root node of the tree.
 	 * @return true if the tree is a full binary tree, false otherwise.
 	 */
-	public static boolean isFullBinaryTree(TreeNode root) {
+	public static <K> boolean isFullBinaryTree(TreeNode<K> root) {
 		if (root == null) {
 			return true;
 		}
@@ -809,17 +1374,17 @@ public class BinaryTree {
 	 * @param root The root node of the tree.
 	 * @return true if the tree is a complete binary tree, false otherwise.
 	 */
-	public static boolean isCompleteBinaryTree(TreeNode root) {
+	public static <K> boolean isCompleteBinaryTree(TreeNode<K> root) {
 		if (root == null) {
 			return true;
 		}
 
-		Queue queue = new Queue();
+		Queue<K> queue = new Queue<>();
 		queue.enqueue(root);
 		boolean flag = false;
 
 		while (!queue.isEmpty()) {
-			TreeNode currentNode = queue.dequeue();
+			TreeNode<K> currentNode = queue.dequeue();
 
 			if (currentNode.left != null) {
 				if (flag) {
@@ -843,24 +1408,27 @@ public class BinaryTree {
 	}
 
 	/**
-	 * Method to check if the tree is a BST
+	 * Method to check if the tree is a BST. Duplicate values are not allowed; use
+	 * {@link BSTValidator} for other duplicate policies or custom orderings.
 	 * 
 	 * @param root The root node of the tree.
 	 * @return true if the tree is BST, false otherwise
 	 */
-	public static boolean isBinarySearchTree(TreeNode root) {
-		return isBSTHelper(root, Integer.MIN_VALUE, Integer.MAX_VALUE);
+	public static boolean isBinarySearchTree(TreeNode<Integer> root) {
+		return isBSTHelper(root, Long.MIN_VALUE, Long.MAX_VALUE);
 	}
 
 	/**
-	 * helper method to check if the tree is BST
+	 * helper method to check if the tree is BST. The bounds are kept as long so
+	 * that narrowing them around Integer.MIN_VALUE or Integer.MAX_VALUE cannot
+	 * overflow.
 	 * 
 	 * @param node    current node of the tree
 	 * @param minimum of the sub tree
 	 * @param maximum of the subtree
 	 * @return true if both the sub trees are BSTs, false otherwise
 	 */
-	public static boolean isBSTHelper(TreeNode node, int min, int max) {
+	public static boolean isBSTHelper(TreeNode<Integer> node, long min, long max) {
 		if (node == null)
 			return true;
 
@@ -871,20 +1439,93 @@ public class BinaryTree {
 
 		// Recursively check the left and
 		// right subtrees with updated ranges
-		return isBSTHelper(node.left, min, node.data - 1) && isBSTHelper(node.right, node.data + 1, max);
+		return isBSTHelper(node.left, min, node.data - 1L) && isBSTHelper(node.right, node.data + 1L, max);
+	}
+
+	/**
+	 * Method to check if a tree of long values is a BST. Duplicate values are not
+	 * allowed.
+	 * 
+	 * @param root The root node of the tree.
+	 * @return true if the tree is BST, false otherwise
+	 */
+	public static boolean isLongBinarySearchTree(TreeNode<Long> root) {
+		return isLongBSTHelper(root, Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	/**
+	 * helper method to check if a tree of long values is BST. A node holding
+	 * Long.MIN_VALUE or Long.MAX_VALUE cannot have a child on that side, which keeps
+	 * the bounds from overflowing.
+	 * 
+	 * @param node    current node of the tree
+	 * @param minimum of the sub tree
+	 * @param maximum of the subtree
+	 * @return true if both the sub trees are BSTs, false otherwise
+	 */
+	public static boolean isLongBSTHelper(TreeNode<Long> node, long min, long max) {
+		if (node == null)
+			return true;
+
+		long data = node.data;
+		if (data < min || data > max)
+			return false;
+
+		if (node.left != null && (data == Long.MIN_VALUE || !isLongBSTHelper(node.left, min, data - 1)))
+			return false;
+		return node.right == null || (data != Long.MAX_VALUE && isLongBSTHelper(node.right, data + 1, max));
+	}
+
+	/**
+	 * Method to check if the tree is a BST under the given ordering. Duplicate
+	 * values are not allowed.
+	 * 
+	 * @param root       The root node of the tree.
+	 * @param comparator The ordering of the values, or null for the natural order.
+	 * @return true if the tree is BST, false otherwise
+	 */
+	public static <K> boolean isBinarySearchTree(TreeNode<K> root, Comparator<? super K> comparator) {
+		return isBSTHelper(root, null, null, comparator);
+	}
+
+	/**
+	 * helper method to check if the tree is BST under the given ordering. The
+	 * bounds are exclusive and null means unbounded.
+	 * 
+	 * @param node       current node of the tree
+	 * @param min        exclusive lower bound of the sub tree, or null
+	 * @param max        exclusive upper bound of the sub tree, or null
+	 * @param comparator The ordering of the values, or null for the natural order.
+	 * @return true if both the sub trees are BSTs, false otherwise
+	 */
+	public static <K> boolean isBSTHelper(TreeNode<K> node, K min, K max, Comparator<? super K> comparator) {
+		if (node == null)
+			return true;
+
+		if ((min != null && Keys.compare(node.data, min, comparator) <= 0)
+				|| (max != null && Keys.compare(node.data, max, comparator) >= 0))
+			return false;
+
+		return isBSTHelper(node.left, min, node.data, comparator)
+				&& isBSTHelper(node.right, node.data, max, comparator);
 	}
 
 	/**
 	 * Main method to interact with the user and perform various binary tree
 	 * operations.
 	 *
-	 * @param args Command-line arguments (not used).
+	 * @param args Optionally the directory of a {@link MutationLog}; the tree is
+	 *             recovered from it and every change is made durable there.
 	 * @throws IOException If an I/O error occurs.
 	 */
 
 	public static void main(String[] args) throws IOException {
 		BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
-		BinaryTree tree = new BinaryTree();
+		BinaryTree<Integer> tree = new BinaryTree<>();
+		if (args.length > 0) {
+			MutationLog.openIntegers(Paths.get(args[0])).recover(tree);
+			System.out.println("Tree recovered from " + args[0]);
+		}
 
 		while (true) {
 			System.out.println("Please choose an option:");
@@ -909,6 +1550,9 @@ public class BinaryTree {
 			case 0:
 				if (Objects.equals(tree.root, null)) {
 					tree.root = createDummy();
+					if (tree.log != null) {
+						tree.log.checkpoint(tree.root); // The dummy tree is not built through logged mutations
+					}
 				} else
 					System.out.println("A tree already exists");
 				break;
@@ -916,12 +1560,13 @@ public class BinaryTree {
 				System.out.print("Enter the value to insert: ");
 				Integer data = Integer.parseInt(in.readLine());
 				insert(tree, data, in);
+				sync(tree);
 				System.out
 						.println("----------------------------------------------------------------------------------");
 				break;
 			case 2:
-				tree.root = null; // Set the root to null, making the tree eligible for garbage collection
-				System.gc(); // Suggest the garbage collector to reclaim memory
+				clear(tree); // Return every node to the pool instead of forcing a garbage collection
+				sync(tree);
 				System.out.println("The binary tree has been deleted.");
 				System.out
 						.println("----------------------------------------------------------------------------------");
@@ -931,13 +1576,14 @@ public class BinaryTree {
 				System.out.print("Enter the value to delete: ");
 				int deleteData = Integer.parseInt(in.readLine());
 				deleteNode(tree, deleteData, in);
+				sync(tree);
 				System.out
 						.println("----------------------------------------------------------------------------------");
 				break;
 
 			case 4:
 				System.out.print("Enter the value to search: ");
-				Integer searchData = Integer.parseInt(in.readLine());
+				int searchData = Integer.parseInt(in.readLine());
 				boolean found = searchNode(tree.root, searchData);
 				if (found) {
 					System.out.println("Node " + searchData + " found in the tree.");
@@ -962,7 +1608,7 @@ public class BinaryTree {
 				break;
 
 			case 7:
-				int height = calculateHeight(tree.root);
+				int height = cachedHeight(tree.root);
 				System.out.println("Height of the binary tree: " + height);
 				System.out
 						.println("----------------------------------------------------------------------------------");
@@ -970,7 +1616,7 @@ public class BinaryTree {
 			case 8:
 				System.out.print("Enter the value to find the depth of: ");
 				Integer depthData = Integer.parseInt(in.readLine());
-				int depth = calculateDepth(tree.root, depthData, 0);
+				int depth = cachedDepth(tree, depthData);
 				if (depth != -1) {
 					System.out.println("Depth of node " + depthData + ": " + depth);
 				} else {
@@ -1000,17 +1646,24 @@ public class BinaryTree {
 						.println("----------------------------------------------------------------------------------");
 				break;
 			case 11:
-				boolean isBST = isBinarySearchTree(tree.root);
-				if (isBST) {
+				BSTValidator<Integer> validator = new BSTValidator<>(tree.comparator,
+						BSTValidator.DuplicatePolicy.REJECT);
+				if (validator.validate(tree.root)) {
 					System.out.println("The binary tree is a Binary Search Tree.");
 				} else {
-					System.out.println("The binary tree is not a Binary Search Tree.");
+					System.out.println("The binary tree is not a Binary Search Tree: node "
+							+ validator.getViolation().data + " at in-order position "
+							+ validator.getViolationIndex() + " does not follow node "
+							+ validator.getViolationPredecessor().data + ".");
 				}
 				System.out
 						.println("----------------------------------------------------------------------------------");
 				break;
 			case 12:
 				System.out.println("Thank you for using the binary tree program. Goodbye.");
+				if (tree.log != null) {
+					tree.log.close();
+				}
 				System.exit(0);
 				break;
 			default:
@@ -0,0 +1,133 @@
+package com.demo.binary;
+
+/**
+ * Class representing an immutable bit vector with constant time rank and fast
+ * select support.
+ *
+ * Bits are packed in 64-bit words. A directory stores the number of set bits
+ * before every block of 8 words (512 bits), so rank needs one directory lookup
+ * and at most 8 popcounts, and select needs a binary search over the directory
+ * followed by a scan of one block. The directory adds 12.5% to the bits.
+ */
+public final class BitVector {
+
+	private static final int WORDS_PER_BLOCK = 8;
+
+	private final long[] words;
+	private final long length;
+	private final long[] blockRanks;
+	private final long ones;
+
+	/**
+	 * Constructor to initialize a bit vector from packed words.
+	 *
+	 * @param words  The bits, least significant bit first; not copied.
+	 * @param length The number of bits.
+	 */
+	BitVector(long[] words, long length) {
+		this.words = words;
+		this.length = length;
+		blockRanks = new long[(words.length + WORDS_PER_BLOCK - 1) / WORDS_PER_BLOCK + 1];
+		long count = 0;
+		for (int i = 0; i < words.length; i++) {
+			if (i % WORDS_PER_BLOCK == 0) {
+				blockRanks[i / WORDS_PER_BLOCK] = count;
+			}
+			count += Long.bitCount(words[i]);
+		}
+		blockRanks[blockRanks.length - 1] = count;
+		ones = count;
+	}
+
+	/**
+	 * Method to get the number of bits.
+	 *
+	 * @return The length of the vector.
+	 */
+	public long length() {
+		return length;
+	}
+
+	/**
+	 * Method to get the number of set bits.
+	 *
+	 * @return The number of ones.
+	 */
+	public long ones() {
+		return ones;
+	}
+
+	/**
+	 * Method to read a bit.
+	 *
+	 * @param position The position of the bit.
+	 * @return true if the bit is set, false otherwise.
+	 */
+	public boolean get(long position) {
+		return (words[(int) (position >>> 6)] & (1L << position)) != 0;
+	}
+
+	/**
+	 * Method to count the set bits before a position.
+	 *
+	 * @param position The end position (exclusive), between 0 and the length.
+	 * @return The number of ones in [0, position).
+	 */
+	public long rank1(long position) {
+		int word = (int) (position >>> 6);
+		int block = word / WORDS_PER_BLOCK;
+		long rank = blockRanks[block];
+		for (int i = block * WORDS_PER_BLOCK; i < word; i++) {
+			rank += Long.bitCount(words[i]);
+		}
+		int offset = (int) (position & 63);
+		if (offset != 0) {
+			rank += Long.bitCount(words[word] & ((1L << offset) - 1));
+		}
+		return rank;
+	}
+
+	/**
+	 * Method to find the position of a set bit by its rank.
+	 *
+	 * @param rank The number of ones before the wanted one (0 based).
+	 * @return The position of the bit, or -1 if there are not enough ones.
+	 */
+	public long select1(long rank) {
+		if (rank < 0 || rank >= ones) {
+			return -1;
+		}
+		// Find the last block starting with at most rank ones
+		int low = 0;
+		int high = blockRanks.length - 2;
+		while (low < high) {
+			int middle = (low + high + 1) >>> 1;
+			if (blockRanks[middle] <= rank) {
+				low = middle;
+			} else {
+				high = middle - 1;
+			}
+		}
+		long remaining = rank - blockRanks[low];
+		int word = low * WORDS_PER_BLOCK;
+		int count;
+		while ((count = Long.bitCount(words[word])) <= remaining) {
+			remaining -= count;
+			word++;
+		}
+		long bits = words[word];
+		for (long i = 0; i < remaining; i++) {
+			bits &= bits - 1; // Clear the lowest set bit
+		}
+		return ((long) word << 6) + Long.numberOfTrailingZeros(bits);
+	}
+
+	/**
+	 * Method to get the memory used by the bits and the directory.
+	 *
+	 * @return The size in bytes, without object headers.
+	 */
+	public long sizeInBytes() {
+		return 8L * (words.length + blockRanks.length);
+	}
+}
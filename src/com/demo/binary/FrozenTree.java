@@ -0,0 +1,206 @@
+package com.demo.binary;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Class representing a read-only binary tree of int values frozen in a
+ * compressed form, for trees that are archived and mostly searched.
+ *
+ * The values are stored in in-order, where an ordered (BST) tree is sorted, in
+ * a {@link PackedIntArray}; sorted or clustered values take a few bits each and
+ * lookups skip whole blocks. The shape is stored separately as two bits per
+ * node in pre-order, telling whether the node has a left and a right child,
+ * which is enough to rebuild the exact tree.
+ */
+public final class FrozenTree {
+
+	private final long[] shape;
+	private final PackedIntArray values;
+
+	/**
+	 * Constructor to initialize a frozen tree from its parts.
+	 *
+	 * @param shape  The child bits of the nodes in pre-order.
+	 * @param values The values in in-order.
+	 */
+	private FrozenTree(long[] shape, PackedIntArray values) {
+		this.shape = shape;
+		this.values = values;
+	}
+
+	/**
+	 * Method to freeze a tree. The walk keeps its own stack, so degenerate trees
+	 * of any depth can be frozen.
+	 *
+	 * @param root The root node of the tree.
+	 * @return The frozen tree.
+	 */
+	@SuppressWarnings("unchecked")
+	public static FrozenTree freeze(TreeNode<Integer> root) {
+		PackedIntArray.Builder builder = new PackedIntArray.Builder();
+		long[] shape = new long[16];
+		long bit = 0;
+		TreeNode<Integer>[] stack = (TreeNode<Integer>[]) new TreeNode<?>[16];
+		int top = 0;
+		TreeNode<Integer> current = root;
+		while (current != null || top > 0) {
+			while (current != null) {
+				// Nodes are first reached in pre-order
+				if (((bit + 1) >>> 6) >= shape.length) {
+					shape = Arrays.copyOf(shape, shape.length * 2);
+				}
+				if (current.left != null) {
+					shape[(int) (bit >>> 6)] |= 1L << bit;
+				}
+				if (current.right != null) {
+					shape[(int) ((bit + 1) >>> 6)] |= 1L << (bit + 1);
+				}
+				bit += 2;
+				if (top == stack.length) {
+					stack = Arrays.copyOf(stack, top * 2);
+				}
+				stack[top++] = current;
+				current = current.left;
+			}
+			current = stack[--top];
+			stack[top] = null;
+			builder.add(current.data); // And left for good in in-order
+			current = current.right;
+		}
+		return new FrozenTree(Arrays.copyOf(shape, (int) ((bit + 63) >>> 6)), builder.build());
+	}
+
+	/**
+	 * Method to get the number of nodes.
+	 *
+	 * @return The size of the tree.
+	 */
+	public int size() {
+		return values.size();
+	}
+
+	/**
+	 * Method to check if the frozen tree is an ordered (BST) tree, duplicates
+	 * allowed.
+	 *
+	 * @return true if the in-order values are sorted, false otherwise.
+	 */
+	public boolean isOrdered() {
+		return values.isSorted();
+	}
+
+	/**
+	 * Method to get a value by its in-order position.
+	 *
+	 * @param index The in-order position, 0 being the leftmost node.
+	 * @return The value.
+	 */
+	public int get(int index) {
+		return values.get(index);
+	}
+
+	/**
+	 * Method to search the tree for a value.
+	 *
+	 * @param value The value to find.
+	 * @return true if a node holds the value, false otherwise.
+	 */
+	public boolean contains(int value) {
+		return values.contains(value);
+	}
+
+	/**
+	 * Method to get the in-order position of the first node holding a value.
+	 *
+	 * @param value The value to find.
+	 * @return The in-order position, or -1 if the value is absent.
+	 */
+	public int indexOf(int value) {
+		return values.indexOf(value);
+	}
+
+	/**
+	 * Method to perform an in-order traversal.
+	 *
+	 * @param action The action to perform on every value.
+	 */
+	public void inorderTraversal(IntConsumer action) {
+		values.forEach(action);
+	}
+
+	/**
+	 * Method to rebuild the tree as linked nodes.
+	 *
+	 * @return The root node of the rebuilt tree.
+	 */
+	public TreeNode<Integer> thaw() {
+		return thaw(null);
+	}
+
+	/**
+	 * Method to rebuild the tree as linked nodes. Nodes are created in pre-order
+	 * while their values are decoded in in-order, both sequentially.
+	 *
+	 * @param pool The pool to take the nodes from, or null to allocate them.
+	 * @return The root node of the rebuilt tree.
+	 */
+	@SuppressWarnings("unchecked")
+	public TreeNode<Integer> thaw(NodePool<Integer> pool) {
+		if (values.size() == 0) {
+			return null;
+		}
+		int[] block = new int[PackedIntArray.BLOCK_SIZE];
+		int index = 0; // In-order position of the next value
+		TreeNode<Integer>[] stack = (TreeNode<Integer>[]) new TreeNode<?>[16];
+		int[] numbers = new int[16]; // Pre-order numbers of the stacked nodes
+		int top = 0;
+		int next = 0; // Pre-order number of the next node
+		TreeNode<Integer> root = BinaryTree.newNode(null, pool);
+		TreeNode<Integer> current = root;
+		while (current != null || top > 0) {
+			while (current != null) {
+				if (top == stack.length) {
+					stack = Arrays.copyOf(stack, top * 2);
+					numbers = Arrays.copyOf(numbers, top * 2);
+				}
+				stack[top] = current;
+				numbers[top++] = next;
+				if (hasChild(2L * next++)) {
+					current.left = BinaryTree.newNode(null, pool);
+				}
+				current = current.left;
+			}
+			current = stack[--top];
+			stack[top] = null;
+			if (index % PackedIntArray.BLOCK_SIZE == 0) {
+				values.decodeBlock(index / PackedIntArray.BLOCK_SIZE, block);
+			}
+			current.data = block[index++ % PackedIntArray.BLOCK_SIZE];
+			if (hasChild(2L * numbers[top] + 1)) {
+				current.right = BinaryTree.newNode(null, pool);
+			}
+			current = current.right;
+		}
+		return root;
+	}
+
+	/**
+	 * Helper method to read a shape bit.
+	 *
+	 * @param bit The position of the bit.
+	 * @return true if the child it describes exists, false otherwise.
+	 */
+	private boolean hasChild(long bit) {
+		return (shape[(int) (bit >>> 6)] & (1L << bit)) != 0;
+	}
+
+	/**
+	 * Method to get the memory used by the shape and the values.
+	 *
+	 * @return The size in bytes, without object headers.
+	 */
+	public long sizeInBytes() {
+		return 8L * shape.length + values.sizeInBytes();
+	}
+}
@@ -0,0 +1,204 @@
+package com.demo.binary;
+
+/**
+ * Class providing linear scan kernels over ranges of int arrays, such as the
+ * level-order values of a {@link SuccinctTree}.
+ *
+ * When the Vector API kernels of {@code src-vector} are compiled and the JVM
+ * runs with {@code --add-modules jdk.incubator.vector}, the kernels use SIMD
+ * instructions; otherwise they fall back to plain loops giving the same
+ * results. Keeping those kernels in their own source root lets the default
+ * build compile without the incubator module.
+ *
+ * Every range is [from, to).
+ */
+public final class IntKernels {
+
+	/**
+	 * Interface of the kernels, implemented once with plain loops and once with
+	 * the Vector API.
+	 */
+	interface Kernels {
+		int indexOf(int[] values, int from, int to, int value);
+
+		int count(int[] values, int from, int to, int value);
+
+		int countBetween(int[] values, int from, int to, int low, int high);
+
+		int min(int[] values, int from, int to);
+
+		int max(int[] values, int from, int to);
+
+		long sum(int[] values, int from, int to);
+	}
+
+	private static final Kernels KERNELS = load();
+
+	private IntKernels() {
+	}
+
+	/**
+	 * Helper method to pick the vectorized kernels when the Vector API is
+	 * available.
+	 *
+	 * @return The kernels to use.
+	 */
+	private static Kernels load() {
+		try {
+			return (Kernels) Class.forName("com.demo.binary.VectorIntKernels").getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError e) {
+			return new ScalarKernels(); // The kernels are not compiled or the module is missing
+		}
+	}
+
+	/**
+	 * Method to check if the kernels use the Vector API.
+	 *
+	 * @return true if the kernels are vectorized, false for the plain loops.
+	 */
+	public static boolean isVectorized() {
+		return !(KERNELS instanceof ScalarKernels);
+	}
+
+	/**
+	 * Method to find the first position of a value.
+	 *
+	 * @param values The array to scan.
+	 * @param from   The first position of the range.
+	 * @param to     The end of the range (exclusive).
+	 * @param value  The value to find.
+	 * @return The position of the value, or -1 if it is absent.
+	 */
+	public static int indexOf(int[] values, int from, int to, int value) {
+		return KERNELS.indexOf(values, from, to, value);
+	}
+
+	/**
+	 * Method to count the positions holding a value.
+	 *
+	 * @param values The array to scan.
+	 * @param from   The first position of the range.
+	 * @param to     The end of the range (exclusive).
+	 * @param value  The value to count.
+	 * @return The number of matches.
+	 */
+	public static int count(int[] values, int from, int to, int value) {
+		return KERNELS.count(values, from, to, value);
+	}
+
+	/**
+	 * Method to count the values between two bounds.
+	 *
+	 * @param values The array to scan.
+	 * @param from   The first position of the range.
+	 * @param to     The end of the range (exclusive).
+	 * @param low    The smallest value to count.
+	 * @param high   The largest value to count.
+	 * @return The number of values in [low, high].
+	 */
+	public static int countBetween(int[] values, int from, int to, int low, int high) {
+		return KERNELS.countBetween(values, from, to, low, high);
+	}
+
+	/**
+	 * Method to get the smallest value.
+	 *
+	 * @param values The array to scan.
+	 * @param from   The first position of the range.
+	 * @param to     The end of the range (exclusive).
+	 * @return The minimum, or Integer.MAX_VALUE for an empty range.
+	 */
+	public static int min(int[] values, int from, int to) {
+		return KERNELS.min(values, from, to);
+	}
+
+	/**
+	 * Method to get the largest value.
+	 *
+	 * @param values The array to scan.
+	 * @param from   The first position of the range.
+	 * @param to     The end of the range (exclusive).
+	 * @return The maximum, or Integer.MIN_VALUE for an empty range.
+	 */
+	public static int max(int[] values, int from, int to) {
+		return KERNELS.max(values, from, to);
+	}
+
+	/**
+	 * Method to add the values without overflow.
+	 *
+	 * @param values The array to scan.
+	 * @param from   The first position of the range.
+	 * @param to     The end of the range (exclusive).
+	 * @return The sum of the values.
+	 */
+	public static long sum(int[] values, int from, int to) {
+		return KERNELS.sum(values, from, to);
+	}
+
+	/**
+	 * Class implementing the kernels with plain loops. The vectorized kernels
+	 * also use it for the tail of a range.
+	 */
+	static final class ScalarKernels implements Kernels {
+
+		@Override
+		public int indexOf(int[] values, int from, int to, int value) {
+			for (int i = from; i < to; i++) {
+				if (values[i] == value) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		public int count(int[] values, int from, int to, int value) {
+			int count = 0;
+			for (int i = from; i < to; i++) {
+				if (values[i] == value) {
+					count++;
+				}
+			}
+			return count;
+		}
+
+		@Override
+		public int countBetween(int[] values, int from, int to, int low, int high) {
+			int count = 0;
+			for (int i = from; i < to; i++) {
+				if (values[i] >= low && values[i] <= high) {
+					count++;
+				}
+			}
+			return count;
+		}
+
+		@Override
+		public int min(int[] values, int from, int to) {
+			int min = Integer.MAX_VALUE;
+			for (int i = from; i < to; i++) {
+				min = Math.min(min, values[i]);
+			}
+			return min;
+		}
+
+		@Override
+		public int max(int[] values, int from, int to) {
+			int max = Integer.MIN_VALUE;
+			for (int i = from; i < to; i++) {
+				max = Math.max(max, values[i]);
+			}
+			return max;
+		}
+
+		@Override
+		public long sum(int[] values, int from, int to) {
+			long sum = 0;
+			for (int i = from; i < to; i++) {
+				sum += values[i];
+			}
+			return sum;
+		}
+	}
+}
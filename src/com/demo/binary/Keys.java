@@ -0,0 +1,41 @@
+package com.demo.binary;
+
+import java.util.Comparator;
+
+/**
+ * Class holding the comparison used by every ordered operation on the tree.
+ *
+ * When no comparator is given, Integer and Long values are compared as
+ * primitives so the integer hot paths never reach a megamorphic
+ * {@code compareTo} call; any other value must implement {@link Comparable}.
+ */
+final class Keys {
+
+	private Keys() {
+	}
+
+	/**
+	 * Method to compare two values of the tree.
+	 *
+	 * @param a          The first value.
+	 * @param b          The second value.
+	 * @param comparator The ordering of the values, or null for the natural order.
+	 * @return A negative number, zero or a positive number as a is less than, equal
+	 *         to or greater than b.
+	 * @throws ClassCastException If no comparator is given and the values are not
+	 *                            Comparable.
+	 */
+	@SuppressWarnings("unchecked")
+	static <K> int compare(K a, K b, Comparator<? super K> comparator) {
+		if (comparator != null) {
+			return comparator.compare(a, b);
+		}
+		if (a instanceof Integer && b instanceof Integer) {
+			return Integer.compare((Integer) a, (Integer) b);
+		}
+		if (a instanceof Long && b instanceof Long) {
+			return Long.compare((Long) a, (Long) b);
+		}
+		return ((Comparable<? super K>) a).compareTo(b);
+	}
+}
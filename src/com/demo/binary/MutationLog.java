@@ -0,0 +1,586 @@
+package com.demo.binary;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Class representing a write-ahead log of the mutations of a binary tree, with
+ * periodic checkpoints and crash recovery.
+ *
+ * Mutations are recorded as structural operations on the node at a path from
+ * the root ('L' and 'R' steps), so replay rebuilds exactly the same tree even
+ * when values repeat:
+ * <ul>
+ *   <li>ATTACH path value: a new leaf at an empty position</li>
+ *   <li>SET path value: the value of an existing node changes</li>
+ *   <li>DETACH path: the node and its whole subtree are dropped</li>
+ *   <li>SPLICE path: a node with at most one child is replaced by that child</li>
+ *   <li>CLEAR: the entire tree is dropped</li>
+ * </ul>
+ *
+ * Appending only buffers a record and returns its log sequence number (LSN). A
+ * background thread writes and fsyncs everything buffered so far in one batch,
+ * so concurrent writers waiting in {@link #awaitDurable(long)} share a single
+ * fsync (group commit). After {@code checkpointInterval} records the next
+ * mutation writes a compacted snapshot of the whole tree and truncates the log.
+ * Every record carries its LSN and the snapshot the LSN it covers, so a crash
+ * between the two steps cannot apply a record twice. LSNs are consecutive, and
+ * recovery refuses a log that skips one rather than replay records onto a tree
+ * they were not written against.
+ *
+ * The log expects mutations of the tree to be serialized by the caller, as
+ * {@link TreeServer} does with its write lock.
+ *
+ * @param <K> The type of the values stored in the tree.
+ */
+public class MutationLog<K> implements Closeable {
+
+	/** Name of the log file inside the log directory. */
+	public static final String LOG_FILE = "tree.log";
+	/** Name of the snapshot file inside the log directory. */
+	public static final String SNAPSHOT_FILE = "tree.snapshot";
+	/** Number of records after which a checkpoint is taken by default. */
+	public static final int DEFAULT_CHECKPOINT_INTERVAL = 10_000;
+
+	private static final String NULL_TOKEN = "#";
+
+	private final Path directory;
+	private final Function<? super K, String> encoder;
+	private final Function<String, ? extends K> decoder;
+	private final int checkpointInterval;
+	private final FileChannel channel;
+	private final Thread flusher;
+
+	private StringBuilder pending;
+	private long lastLsn;
+	private long durableLsn;
+	private long recordsSinceCheckpoint;
+	private IOException failure;
+	private boolean closed;
+
+	/**
+	 * Constructor to open the log stored in a directory, creating it if needed.
+	 *
+	 * @param directory          The directory holding the log and the snapshot.
+	 * @param encoder            Converts a value to text, without line breaks.
+	 * @param decoder            Converts text back to a value.
+	 * @param checkpointInterval The number of records between checkpoints.
+	 * @throws IOException If the log cannot be opened.
+	 */
+	public MutationLog(Path directory, Function<? super K, String> encoder, Function<String, ? extends K> decoder,
+			int checkpointInterval) throws IOException {
+		this.directory = directory;
+		this.encoder = encoder;
+		this.decoder = decoder;
+		this.checkpointInterval = checkpointInterval;
+		Files.createDirectories(directory);
+		channel = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		channel.position(channel.size());
+		pending = new StringBuilder();
+		flusher = new Thread(this::flushLoop, "mutation-log-flusher");
+		flusher.setDaemon(true);
+		flusher.start();
+	}
+
+	/**
+	 * Method to open a log of int values with the default checkpoint interval.
+	 *
+	 * @param directory The directory holding the log and the snapshot.
+	 * @return The opened log.
+	 * @throws IOException If the log cannot be opened.
+	 */
+	public static MutationLog<Integer> openIntegers(Path directory) throws IOException {
+		return new MutationLog<>(directory, String::valueOf, Integer::valueOf, DEFAULT_CHECKPOINT_INTERVAL);
+	}
+
+	/**
+	 * Method to rebuild a tree from the last snapshot and the records logged
+	 * after it, then attach the log to the tree so that its later mutations are
+	 * recorded. A record cut short by a crash is discarded.
+	 *
+	 * @param tree The binary tree object, whose current content is replaced.
+	 * @throws IOException If the snapshot or the log cannot be read, or if the
+	 *                     log skips an LSN.
+	 */
+	public synchronized void recover(BinaryTree<K> tree) throws IOException {
+		tree.log = null; // Replayed mutations must not be logged again
+		BinaryTree.clear(tree);
+		long snapshotLsn = readSnapshot(tree);
+		lastLsn = snapshotLsn;
+
+		byte[] bytes = Files.readAllBytes(directory.resolve(LOG_FILE));
+		int start = 0;
+		int end;
+		while ((end = indexOf(bytes, (byte) '\n', start)) >= 0) {
+			String line = new String(bytes, start, end - start, StandardCharsets.UTF_8);
+			if (!replay(tree, line, snapshotLsn)) {
+				break;
+			}
+			start = end + 1;
+		}
+		channel.truncate(start); // Drop a torn record left by a crash
+		channel.position(start);
+		durableLsn = lastLsn;
+
+		if (tree.index != null) {
+			BinaryTree.enableIndex(tree);
+		}
+		tree.log = this;
+	}
+
+	/**
+	 * Helper method to find a byte in an array.
+	 *
+	 * @param bytes The array.
+	 * @param value The byte to find.
+	 * @param from  The position to start from.
+	 * @return The position of the byte, or -1 if it is not found.
+	 */
+	private static int indexOf(byte[] bytes, byte value, int from) {
+		for (int i = from; i < bytes.length; i++) {
+			if (bytes[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Helper method to replay a single record.
+	 *
+	 * @param tree        The binary tree object.
+	 * @param line        The record, without the line terminator.
+	 * @param snapshotLsn The LSN covered by the snapshot; older records are skipped.
+	 * @return true if the record was valid, false if it is damaged.
+	 * @throws IOException If a record is missing before this one, so that the
+	 *                     paths of the record may not match the tree.
+	 */
+	private boolean replay(BinaryTree<K> tree, String line, long snapshotLsn) throws IOException {
+		String[] parts = line.split(" ", 4);
+		if (parts.length < 3 || !parts[2].startsWith("/")) {
+			return false;
+		}
+		long lsn;
+		try {
+			lsn = Long.parseLong(parts[0]);
+		} catch (NumberFormatException e) {
+			return false;
+		}
+		if (lsn <= snapshotLsn) {
+			return true;
+		}
+		if (lsn != lastLsn + 1) {
+			throw new IOException("The mutation log jumps from LSN " + lastLsn + " to " + lsn);
+		}
+		String path = parts[2].substring(1);
+		K value = parts.length > 3 ? decoder.apply(parts[3]) : null;
+		switch (parts[1]) {
+		case "ATTACH":
+			replaceAt(tree, path, BinaryTree.newNode(value, tree.pool));
+			break;
+		case "SET":
+			nodeAt(tree, path).data = value;
+			break;
+		case "DETACH": {
+			TreeNode<K> node = nodeAt(tree, path);
+			replaceAt(tree, path, null);
+			tree.pool.release(node);
+			break;
+		}
+		case "SPLICE": {
+			TreeNode<K> node = nodeAt(tree, path);
+			replaceAt(tree, path, node.left != null ? node.left : node.right);
+			node.left = null;
+			node.right = null;
+			tree.pool.release(node);
+			break;
+		}
+		case "CLEAR":
+			BinaryTree.clear(tree);
+			break;
+		default:
+			return false;
+		}
+		lastLsn = lsn;
+		return true;
+	}
+
+	/**
+	 * Helper method to find the node at a path.
+	 *
+	 * @param tree The binary tree object.
+	 * @param path The steps from the root.
+	 * @return The node at the path.
+	 */
+	private static <K> TreeNode<K> nodeAt(BinaryTree<K> tree, String path) {
+		TreeNode<K> node = tree.root;
+		for (int i = 0; i < path.length(); i++) {
+			node = path.charAt(i) == 'L' ? node.left : node.right;
+		}
+		return node;
+	}
+
+	/**
+	 * Helper method to replace the node at a path.
+	 *
+	 * @param tree The binary tree object.
+	 * @param path The steps from the root.
+	 * @param node The new node, may be null.
+	 */
+	private static <K> void replaceAt(BinaryTree<K> tree, String path, TreeNode<K> node) {
+		if (path.isEmpty()) {
+			tree.root = node;
+			return;
+		}
+		TreeNode<K> parent = nodeAt(tree, path.substring(0, path.length() - 1));
+		if (path.charAt(path.length() - 1) == 'L') {
+			parent.left = node;
+		} else {
+			parent.right = node;
+		}
+	}
+
+	/**
+	 * Method to record a new leaf.
+	 *
+	 * @param path The steps from the root to the new leaf.
+	 * @param data The value of the leaf.
+	 * @return The LSN of the record.
+	 */
+	public long attach(String path, K data) {
+		return append("ATTACH", path, data);
+	}
+
+	/**
+	 * Method to record a new value of an existing node.
+	 *
+	 * @param path The steps from the root to the node.
+	 * @param data The new value.
+	 * @return The LSN of the record.
+	 */
+	public long set(String path, K data) {
+		return append("SET", path, data);
+	}
+
+	/**
+	 * Method to record that a node and its subtree were dropped.
+	 *
+	 * @param path The steps from the root to the node.
+	 * @return The LSN of the record.
+	 */
+	public long detach(String path) {
+		return append("DETACH", path, null);
+	}
+
+	/**
+	 * Method to record that a node with at most one child was replaced by it.
+	 *
+	 * @param path The steps from the root to the node.
+	 * @return The LSN of the record.
+	 */
+	public long splice(String path) {
+		return append("SPLICE", path, null);
+	}
+
+	/**
+	 * Method to record that the entire tree was dropped.
+	 *
+	 * @return The LSN of the record.
+	 */
+	public long clear() {
+		return append("CLEAR", "", null);
+	}
+
+	/**
+	 * Helper method to buffer a record for the flusher.
+	 *
+	 * @param operation The name of the operation.
+	 * @param path      The steps from the root.
+	 * @param data      The value of the record, or null.
+	 * @return The LSN of the record.
+	 */
+	private synchronized long append(String operation, String path, K data) {
+		if (closed) {
+			throw new IllegalStateException("The mutation log is closed");
+		}
+		long lsn = ++lastLsn;
+		pending.append(lsn).append(' ').append(operation).append(" /").append(path);
+		if (data != null) {
+			pending.append(' ').append(encode(data));
+		}
+		pending.append('\n');
+		recordsSinceCheckpoint++;
+		notifyAll();
+		return lsn;
+	}
+
+	/**
+	 * Helper method to encode a value, rejecting values that would break the
+	 * line-based format.
+	 *
+	 * @param data The value.
+	 * @return The text of the value.
+	 */
+	private String encode(K data) {
+		String text = encoder.apply(data);
+		if (text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0 || text.equals(NULL_TOKEN)) {
+			throw new IllegalArgumentException("Value cannot be logged: " + text);
+		}
+		return text;
+	}
+
+	/**
+	 * Helper method run by the flusher thread: writes and fsyncs every record
+	 * buffered so far in one batch, then wakes the writers waiting for them.
+	 */
+	private void flushLoop() {
+		while (true) {
+			String batch;
+			long batchLsn;
+			synchronized (this) {
+				while (pending.length() == 0 && !closed) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+				if (pending.length() == 0) {
+					return; // Closed and fully flushed
+				}
+				batch = pending.toString();
+				batchLsn = lastLsn;
+				pending = new StringBuilder();
+			}
+			try {
+				ByteBuffer buffer = ByteBuffer.wrap(batch.getBytes(StandardCharsets.UTF_8));
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+				channel.force(false);
+			} catch (IOException e) {
+				synchronized (this) {
+					failure = e;
+					notifyAll();
+				}
+				return;
+			}
+			synchronized (this) {
+				durableLsn = batchLsn;
+				notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Method to wait until a record is safely on disk.
+	 *
+	 * @param lsn The LSN of the record.
+	 * @throws UncheckedIOException If the log could not be written.
+	 */
+	public synchronized void awaitDurable(long lsn) {
+		boolean interrupted = false;
+		while (durableLsn < lsn && failure == null) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		if (failure != null) {
+			throw new UncheckedIOException("The mutation log could not be written", failure);
+		}
+	}
+
+	/**
+	 * Method to wait until every record appended so far is safely on disk.
+	 */
+	public void sync() {
+		awaitDurable(lastLsn());
+	}
+
+	/**
+	 * Method to get the LSN of the last record appended.
+	 *
+	 * @return The LSN, or 0 if nothing was ever logged.
+	 */
+	public synchronized long lastLsn() {
+		return lastLsn;
+	}
+
+	/**
+	 * Method to take a checkpoint if enough records were logged since the last
+	 * one.
+	 *
+	 * @param root The root node of the tree.
+	 */
+	public void checkpointIfDue(TreeNode<K> root) {
+		boolean due;
+		synchronized (this) {
+			due = recordsSinceCheckpoint >= checkpointInterval;
+		}
+		if (due) {
+			try {
+				checkpoint(root);
+			} catch (IOException e) {
+				throw new UncheckedIOException("The checkpoint could not be written", e);
+			}
+		}
+	}
+
+	/**
+	 * Method to write a compacted snapshot of the whole tree and truncate the
+	 * log. The snapshot replaces the previous one atomically.
+	 *
+	 * @param root The root node of the tree.
+	 * @throws IOException If the snapshot cannot be written.
+	 */
+	public void checkpoint(TreeNode<K> root) throws IOException {
+		sync();
+		long lsn = lastLsn();
+		Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+		try (FileChannel file = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			Writer out = new BufferedWriter(Channels.newWriter(file, StandardCharsets.UTF_8));
+			out.write("SNAPSHOT " + lsn + "\n");
+			writeSnapshot(root, out);
+			out.flush();
+			file.force(false);
+		}
+		Files.move(temporary, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+		syncDirectory(); // The rename must be durable before the records it covers are dropped
+		synchronized (this) {
+			if (lastLsn == lsn) {
+				channel.truncate(0); // Every record is covered by the snapshot
+				channel.position(0);
+			}
+			recordsSinceCheckpoint = 0;
+		}
+	}
+
+	/**
+	 * Helper method to make the entries of the directory durable, such as a
+	 * file just renamed into it.
+	 *
+	 * @throws IOException If the directory cannot be forced to disk.
+	 */
+	private void syncDirectory() throws IOException {
+		FileChannel dir;
+		try {
+			dir = FileChannel.open(directory, StandardOpenOption.READ);
+		} catch (IOException e) {
+			return; // Platforms such as Windows cannot open a directory, nor need to
+		}
+		try (dir) {
+			dir.force(true);
+		}
+	}
+
+	/**
+	 * Helper method to write the tree in pre-order, one value per line and a
+	 * marker for every missing child. An explicit stack keeps degenerate trees
+	 * from overflowing the call stack.
+	 *
+	 * @param root The root node of the tree.
+	 * @param out  The writer of the snapshot.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	private void writeSnapshot(TreeNode<K> root, Writer out) throws IOException {
+		List<TreeNode<K>> stack = new ArrayList<>();
+		stack.add(root);
+		while (!stack.isEmpty()) {
+			TreeNode<K> node = stack.remove(stack.size() - 1);
+			if (node == null) {
+				out.write(NULL_TOKEN);
+			} else {
+				out.write(encode(node.data));
+				stack.add(node.right);
+				stack.add(node.left);
+			}
+			out.write('\n');
+		}
+	}
+
+	/**
+	 * Helper method to rebuild the tree from the snapshot, if there is one.
+	 *
+	 * @param tree The binary tree object, which must be empty.
+	 * @return The LSN covered by the snapshot, or 0 if there is none.
+	 * @throws IOException If the snapshot cannot be read.
+	 */
+	private long readSnapshot(BinaryTree<K> tree) throws IOException {
+		Path file = directory.resolve(SNAPSHOT_FILE);
+		if (!Files.exists(file)) {
+			return 0;
+		}
+		List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+		long lsn = Long.parseLong(lines.get(0).substring("SNAPSHOT ".length()));
+
+		// Each stack entry is a node still waiting for its left (false) or right
+		// (true) child
+		List<TreeNode<K>> parents = new ArrayList<>();
+		List<Boolean> rightNext = new ArrayList<>();
+		for (int i = 1; i < lines.size(); i++) {
+			String token = lines.get(i);
+			TreeNode<K> node = token.equals(NULL_TOKEN) ? null : BinaryTree.newNode(decoder.apply(token), tree.pool);
+			if (i == 1) {
+				tree.root = node;
+			} else {
+				int top = parents.size() - 1;
+				if (rightNext.get(top)) {
+					parents.remove(top).right = node;
+					rightNext.remove(top);
+				} else {
+					parents.get(top).left = node;
+					rightNext.set(top, true);
+				}
+			}
+			if (node != null) {
+				parents.add(node);
+				rightNext.add(false);
+			}
+		}
+		return lsn;
+	}
+
+	/**
+	 * Method to flush every buffered record and close the log.
+	 *
+	 * @throws IOException If the log cannot be flushed or closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		synchronized (this) {
+			closed = true;
+			notifyAll();
+		}
+		try {
+			flusher.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		channel.close();
+		if (failure != null) {
+			throw failure;
+		}
+	}
+}
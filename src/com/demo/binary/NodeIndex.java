@@ -0,0 +1,258 @@
+package com.demo.binary;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Class representing an index over the nodes of a binary tree, mapping each
+ * value to its node and each node to its parent, so that a node and its parent
+ * are located in O(1) instead of by a search from the root.
+ *
+ * When several nodes hold the same value only the first one indexed is found
+ * by {@link #find(Object)}; the others are shadowed. While any node is shadowed
+ * the index reports itself as incomplete and lookups that miss must fall back
+ * to a search. A shadowed node stops counting once it is removed or takes a
+ * value no other node holds, so the index becomes complete again.
+ *
+ * The depth of every node is cached once computed. Depths only change when a
+ * subtree moves to a new parent, which bumps an epoch and lazily invalidates
+ * every cached depth in O(1).
+ *
+ * @param <K> The type of the values stored in the tree.
+ */
+public class NodeIndex<K> {
+
+	/**
+	 * Class representing what the index knows about a node.
+	 */
+	private static final class Entry<K> {
+		TreeNode<K> parent;
+		int depth;
+		int epoch; // The depth is valid only while this matches the index epoch
+		boolean shadowed; // Another node is found for the value of this one
+
+		/**
+		 * Constructor to initialize the entry of a node.
+		 *
+		 * @param parent The parent of the node, or null for the root.
+		 * @param depth  The depth of the node, if known.
+		 * @param epoch  The epoch in which the depth was computed.
+		 */
+		Entry(TreeNode<K> parent, int depth, int epoch) {
+			this.parent = parent;
+			this.depth = depth;
+			this.epoch = epoch;
+		}
+	}
+
+	private final HashMap<K, TreeNode<K>> nodes;
+	private final IdentityHashMap<TreeNode<K>, Entry<K>> entries;
+	private int shadowed;
+	private int epoch;
+
+	/**
+	 * Constructor to initialize an empty index.
+	 */
+	public NodeIndex() {
+		nodes = new HashMap<>();
+		entries = new IdentityHashMap<>();
+		shadowed = 0;
+		epoch = 0;
+	}
+
+	/**
+	 * Method to build the index of a tree.
+	 *
+	 * @param root The root node of the tree.
+	 * @return The index of every node of the tree.
+	 */
+	public static <K> NodeIndex<K> build(TreeNode<K> root) {
+		NodeIndex<K> index = new NodeIndex<>();
+		index.addSubtree(root, null);
+		return index;
+	}
+
+	/**
+	 * Helper method to index a subtree in pre-order.
+	 *
+	 * @param node   The root node of the subtree.
+	 * @param parent The parent of the subtree root, or null for the root.
+	 */
+	private void addSubtree(TreeNode<K> node, TreeNode<K> parent) {
+		while (node != null) {
+			add(node, parent);
+			addSubtree(node.left, node);
+			parent = node;
+			node = node.right; // Loop on the right child instead of recursing
+		}
+	}
+
+	/**
+	 * Method to add a node to the index.
+	 *
+	 * @param node   The node to add.
+	 * @param parent The parent of the node, or null for the root.
+	 */
+	public void add(TreeNode<K> node, TreeNode<K> parent) {
+		Entry<K> parentEntry = parent == null ? null : entries.get(parent);
+		Entry<K> entry;
+		if (parent == null) {
+			entry = new Entry<>(null, 0, epoch);
+		} else if (parentEntry != null && parentEntry.epoch == epoch) {
+			entry = new Entry<>(parent, parentEntry.depth + 1, epoch);
+		} else {
+			entry = new Entry<>(parent, -1, epoch - 1);
+		}
+		entries.put(node, entry);
+		putValue(node, node.data, entry);
+	}
+
+	/**
+	 * Helper method to make a node the one found for a value, or to count it as
+	 * shadowed when another node already is.
+	 *
+	 * @param node  The indexed node.
+	 * @param data  The value of the node.
+	 * @param entry The entry of the node.
+	 */
+	private void putValue(TreeNode<K> node, K data, Entry<K> entry) {
+		entry.shadowed = nodes.putIfAbsent(data, node) != null;
+		if (entry.shadowed) {
+			shadowed++;
+		}
+	}
+
+	/**
+	 * Helper method to stop finding a node for its value, or to stop counting it
+	 * as shadowed.
+	 *
+	 * @param node  The indexed node.
+	 * @param entry The entry of the node.
+	 */
+	private void removeValue(TreeNode<K> node, Entry<K> entry) {
+		if (entry.shadowed) {
+			entry.shadowed = false;
+			shadowed--;
+		} else {
+			nodes.remove(node.data, node);
+		}
+	}
+
+	/**
+	 * Method to find the node holding a value.
+	 *
+	 * @param data The value to find.
+	 * @return The node, or null if it is not indexed.
+	 */
+	public TreeNode<K> find(K data) {
+		return nodes.get(data);
+	}
+
+	/**
+	 * Method to get the parent of an indexed node.
+	 *
+	 * @param node The indexed node.
+	 * @return The parent node, or null for the root.
+	 */
+	public TreeNode<K> parentOf(TreeNode<K> node) {
+		return entries.get(node).parent;
+	}
+
+	/**
+	 * Method to get the depth of an indexed node, the root being at depth 0.
+	 * Cached depths are returned in O(1); otherwise the walk up stops at the first
+	 * ancestor with a cached depth and caches every depth on the way.
+	 *
+	 * @param node The indexed node.
+	 * @return The depth of the node.
+	 */
+	public int depthOf(TreeNode<K> node) {
+		Entry<K> entry = entries.get(node);
+		if (entry.epoch == epoch) {
+			return entry.depth;
+		}
+		List<Entry<K>> path = new ArrayList<>();
+		int depth = -1;
+		while (entry != null) {
+			if (entry.epoch == epoch) {
+				depth = entry.depth;
+				break;
+			}
+			path.add(entry);
+			entry = entry.parent == null ? null : entries.get(entry.parent);
+		}
+		for (int i = path.size() - 1; i >= 0; i--) {
+			Entry<K> stale = path.get(i);
+			stale.depth = ++depth;
+			stale.epoch = epoch;
+		}
+		return depth;
+	}
+
+	/**
+	 * Method to check if a lookup that misses proves the value is absent.
+	 *
+	 * @return true if no indexed node is shadowed by another holding its value.
+	 */
+	public boolean isComplete() {
+		return shadowed == 0;
+	}
+
+	/**
+	 * Method to record that a node and its subtree now hang from a new parent.
+	 * Every cached depth is invalidated.
+	 *
+	 * @param node   The indexed node.
+	 * @param parent The new parent, or null if the node became the root.
+	 */
+	public void setParent(TreeNode<K> node, TreeNode<K> parent) {
+		entries.get(node).parent = parent;
+		epoch++;
+	}
+
+	/**
+	 * Method to record that a node is about to hold a new value. Must be called
+	 * before the value of the node is changed.
+	 *
+	 * @param node The indexed node.
+	 * @param data The new value of the node.
+	 */
+	public void changeValue(TreeNode<K> node, K data) {
+		Entry<K> entry = entries.get(node);
+		removeValue(node, entry);
+		putValue(node, data, entry);
+	}
+
+	/**
+	 * Method to remove a single node from the index.
+	 *
+	 * @param node The indexed node.
+	 */
+	public void remove(TreeNode<K> node) {
+		removeValue(node, entries.remove(node));
+	}
+
+	/**
+	 * Method to remove a node and its whole subtree from the index.
+	 *
+	 * @param node The root node of the subtree.
+	 */
+	public void removeSubtree(TreeNode<K> node) {
+		while (node != null) {
+			remove(node);
+			removeSubtree(node.left);
+			node = node.right;
+		}
+	}
+
+	/**
+	 * Method to remove every node from the index.
+	 */
+	public void clear() {
+		nodes.clear();
+		entries.clear();
+		shadowed = 0;
+	}
+}
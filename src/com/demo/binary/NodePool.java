@@ -0,0 +1,120 @@
+package com.demo.binary;
+
+import java.util.Arrays;
+
+/**
+ * Class representing a pool of tree nodes that can be reused instead of being
+ * left to the garbage collector.
+ *
+ * Released subtrees are kept whole on a stack of free roots, so releasing a
+ * node, a subtree or an entire tree is O(1). Subtrees are taken apart lazily:
+ * acquiring a node pops a free root, pushes its children back as free roots and
+ * hands out the cleared node. A released node must no longer be reachable from
+ * any tree.
+ *
+ * Released nodes keep their values until they are handed out again; call
+ * {@link #clear()} to let the garbage collector reclaim them. The pool is not
+ * thread-safe.
+ *
+ * @param <K> The type of the values stored in the nodes.
+ */
+public class NodePool<K> {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private TreeNode<K>[] free;
+	private int size;
+
+	/**
+	 * Constructor to initialize an empty pool.
+	 */
+	@SuppressWarnings("unchecked")
+	public NodePool() {
+		free = (TreeNode<K>[]) new TreeNode<?>[INITIAL_CAPACITY];
+		size = 0;
+	}
+
+	/**
+	 * Method to get a node holding the given data, reusing a released node when
+	 * one is available.
+	 *
+	 * @param data The value to be stored in the node.
+	 * @return A node with no children holding the given data.
+	 */
+	public TreeNode<K> acquire(K data) {
+		if (size == 0) {
+			return new TreeNode<>(data);
+		}
+		TreeNode<K> node = free[--size];
+		free[size] = null;
+		if (node.left != null) {
+			push(node.left);
+		}
+		if (node.right != null) {
+			push(node.right);
+		}
+		node.data = data;
+		node.left = null;
+		node.right = null;
+		node.height = 0;
+		return node;
+	}
+
+	/**
+	 * Method to return a node and its whole subtree to the pool in O(1).
+	 *
+	 * @param root The root node of the subtree, may be null.
+	 */
+	public void release(TreeNode<K> root) {
+		if (root != null) {
+			push(root);
+		}
+	}
+
+	/**
+	 * Method to pre-allocate nodes so that the next acquisitions do not allocate.
+	 * The nodes are chained through their right child and released as a single
+	 * subtree.
+	 *
+	 * @param count The number of nodes to allocate.
+	 */
+	public void reserve(int count) {
+		TreeNode<K> chain = null;
+		for (int i = 0; i < count; i++) {
+			TreeNode<K> node = new TreeNode<>(null);
+			node.right = chain;
+			chain = node;
+		}
+		release(chain);
+	}
+
+	/**
+	 * Method to check if the pool holds no released nodes.
+	 *
+	 * @return true if the pool is empty, false otherwise.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Method to drop every released node so that the garbage collector can
+	 * reclaim them.
+	 */
+	public void clear() {
+		Arrays.fill(free, 0, size, null);
+		size = 0;
+	}
+
+	/**
+	 * Helper method to push a free subtree root, growing the stack when needed.
+	 *
+	 * @param node The root of the free subtree.
+	 */
+	private void push(TreeNode<K> node) {
+		if (size == free.length) {
+			free = Arrays.copyOf(free, size * 2);
+		}
+		free[size++] = node;
+	}
+}
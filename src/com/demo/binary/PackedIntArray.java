@@ -0,0 +1,378 @@
+package com.demo.binary;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Class representing an immutable array of int values compressed in blocks.
+ *
+ * Values are cut into blocks of 128. A block keeps its first value and then
+ * the zigzag encoded difference between every value and the previous one,
+ * bit-packed with the width of the largest difference of the block. Sorted or
+ * clustered values therefore take a few bits each. Every block also keeps its
+ * minimum and maximum as a skip index: a search only decodes the blocks whose
+ * range holds the value, and a binary search over the blocks when the values
+ * are sorted.
+ *
+ * Reading a value decodes its block up to the value, at most 127 differences.
+ */
+public final class PackedIntArray {
+
+	static final int BLOCK_SIZE = 128;
+
+	private final int size;
+	private final long[] words;
+	private final long[] offsets; // Position of the first difference of every block
+	private final byte[] widths;
+	private final int[] firsts;
+	private final int[] mins;
+	private final int[] maxs;
+	private final boolean sorted;
+
+	/**
+	 * Class to build a packed array one value at a time, without holding the
+	 * uncompressed values.
+	 */
+	public static final class Builder {
+		private final int[] block = new int[BLOCK_SIZE];
+		private int filled;
+		private int size;
+		private long[] words = new long[16];
+		private long bits;
+		private long[] offsets = new long[16];
+		private byte[] widths = new byte[16];
+		private int[] firsts = new int[16];
+		private int[] mins = new int[16];
+		private int[] maxs = new int[16];
+		private int blocks;
+		private boolean sorted = true;
+		private int last;
+
+		/**
+		 * Method to append a value.
+		 *
+		 * @param value The next value.
+		 * @return This builder.
+		 */
+		public Builder add(int value) {
+			if (size > 0 && value < last) {
+				sorted = false;
+			}
+			last = value;
+			block[filled++] = value;
+			size++;
+			if (filled == BLOCK_SIZE) {
+				flush();
+			}
+			return this;
+		}
+
+		/**
+		 * Helper method to encode the buffered values as a block.
+		 */
+		private void flush() {
+			if (blocks == firsts.length) {
+				int capacity = blocks * 2;
+				offsets = Arrays.copyOf(offsets, capacity);
+				widths = Arrays.copyOf(widths, capacity);
+				firsts = Arrays.copyOf(firsts, capacity);
+				mins = Arrays.copyOf(mins, capacity);
+				maxs = Arrays.copyOf(maxs, capacity);
+			}
+			int min = block[0];
+			int max = block[0];
+			int any = 0; // Union of the differences, to find the widest one
+			for (int i = 1; i < filled; i++) {
+				min = Math.min(min, block[i]);
+				max = Math.max(max, block[i]);
+				any |= zigzag(block[i] - block[i - 1]);
+			}
+			int width = 32 - Integer.numberOfLeadingZeros(any);
+			offsets[blocks] = bits;
+			widths[blocks] = (byte) width;
+			firsts[blocks] = block[0];
+			mins[blocks] = min;
+			maxs[blocks] = max;
+			blocks++;
+			long needed = (bits + (long) width * (filled - 1) + 63) >>> 6;
+			if (needed > words.length) {
+				words = Arrays.copyOf(words, (int) Math.max(needed, words.length * 2L));
+			}
+			for (int i = 1; i < filled; i++) {
+				write(zigzag(block[i] - block[i - 1]), width);
+			}
+			filled = 0;
+		}
+
+		/**
+		 * Helper method to append the low bits of a value.
+		 *
+		 * @param value The value, unsigned.
+		 * @param width The number of bits to append.
+		 */
+		private void write(int value, int width) {
+			if (width == 0) {
+				return;
+			}
+			long unsigned = value & 0xFFFFFFFFL;
+			int word = (int) (bits >>> 6);
+			int shift = (int) (bits & 63);
+			words[word] |= unsigned << shift;
+			if (shift + width > 64) {
+				words[word + 1] |= unsigned >>> (64 - shift);
+			}
+			bits += width;
+		}
+
+		/**
+		 * Method to finish the array. The builder must not be used afterwards.
+		 *
+		 * @return The packed array.
+		 */
+		public PackedIntArray build() {
+			if (filled > 0) {
+				flush();
+			}
+			return new PackedIntArray(this);
+		}
+	}
+
+	/**
+	 * Constructor to initialize a packed array from a finished builder.
+	 *
+	 * @param builder The builder holding the encoded blocks.
+	 */
+	private PackedIntArray(Builder builder) {
+		size = builder.size;
+		words = Arrays.copyOf(builder.words, (int) ((builder.bits + 63) >>> 6) + 1); // One spare word for reads
+		offsets = Arrays.copyOf(builder.offsets, builder.blocks);
+		widths = Arrays.copyOf(builder.widths, builder.blocks);
+		firsts = Arrays.copyOf(builder.firsts, builder.blocks);
+		mins = Arrays.copyOf(builder.mins, builder.blocks);
+		maxs = Arrays.copyOf(builder.maxs, builder.blocks);
+		sorted = builder.sorted;
+	}
+
+	/**
+	 * Method to pack an array of values.
+	 *
+	 * @param values The values to pack.
+	 * @return The packed array.
+	 */
+	public static PackedIntArray of(int[] values) {
+		Builder builder = new Builder();
+		for (int value : values) {
+			builder.add(value);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Helper method to map a signed difference to an unsigned one, small
+	 * magnitudes giving small numbers.
+	 *
+	 * @param value The signed difference.
+	 * @return The zigzag encoded difference.
+	 */
+	private static int zigzag(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+
+	/**
+	 * Helper method to undo the zigzag encoding.
+	 *
+	 * @param value The zigzag encoded difference.
+	 * @return The signed difference.
+	 */
+	private static int unzigzag(int value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Helper method to read packed bits.
+	 *
+	 * @param position The position of the first bit.
+	 * @param width    The number of bits, at most 32.
+	 * @return The unsigned value.
+	 */
+	private int read(long position, int width) {
+		int word = (int) (position >>> 6);
+		int shift = (int) (position & 63);
+		long bits = words[word] >>> shift;
+		if (shift + width > 64) {
+			bits |= words[word + 1] << (64 - shift);
+		}
+		return (int) (bits & ((1L << width) - 1));
+	}
+
+	/**
+	 * Method to get the number of values.
+	 *
+	 * @return The size of the array.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Method to check if the values are in ascending order.
+	 *
+	 * @return true if no value is smaller than the one before it.
+	 */
+	public boolean isSorted() {
+		return sorted;
+	}
+
+	/**
+	 * Method to read a value.
+	 *
+	 * @param index The position of the value.
+	 * @return The value.
+	 */
+	public int get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+		}
+		int block = index / BLOCK_SIZE;
+		int width = widths[block];
+		long position = offsets[block];
+		int value = firsts[block];
+		for (int i = index % BLOCK_SIZE; i > 0; i--) {
+			value += unzigzag(read(position, width));
+			position += width;
+		}
+		return value;
+	}
+
+	/**
+	 * Method to find the first position of a value. Blocks whose range does not
+	 * hold the value are skipped without being decoded.
+	 *
+	 * @param value The value to find.
+	 * @return The position of the value, or -1 if it is absent.
+	 */
+	public int indexOf(int value) {
+		int block = 0;
+		if (sorted) {
+			// First block that can reach the value
+			int low = 0;
+			int high = maxs.length;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (maxs[middle] < value) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			block = low;
+		}
+		for (; block < maxs.length; block++) {
+			if (value < mins[block]) {
+				if (sorted) {
+					return -1; // Every later block is larger
+				}
+				continue;
+			}
+			if (value > maxs[block]) {
+				continue;
+			}
+			int index = indexInBlock(block, value);
+			if (index >= 0) {
+				return index;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Helper method to search one block for a value.
+	 *
+	 * @param block The block number.
+	 * @param value The value to find.
+	 * @return The position of the value in the array, or -1 if it is absent.
+	 */
+	private int indexInBlock(int block, int value) {
+		int width = widths[block];
+		long position = offsets[block];
+		int current = firsts[block];
+		int start = block * BLOCK_SIZE;
+		int end = Math.min(start + BLOCK_SIZE, size);
+		for (int i = start; i < end; i++) {
+			if (i > start) {
+				current += unzigzag(read(position, width));
+				position += width;
+			}
+			if (current == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Method to check if a value is present.
+	 *
+	 * @param value The value to find.
+	 * @return true if the value is present, false otherwise.
+	 */
+	public boolean contains(int value) {
+		return indexOf(value) >= 0;
+	}
+
+	/**
+	 * Helper method to decode one block.
+	 *
+	 * @param block The block number.
+	 * @param out   The array receiving the values, of at least BLOCK_SIZE.
+	 * @return The number of values in the block.
+	 */
+	int decodeBlock(int block, int[] out) {
+		int width = widths[block];
+		long position = offsets[block];
+		int count = Math.min(BLOCK_SIZE, size - block * BLOCK_SIZE);
+		out[0] = firsts[block];
+		for (int i = 1; i < count; i++) {
+			out[i] = out[i - 1] + unzigzag(read(position, width));
+			position += width;
+		}
+		return count;
+	}
+
+	/**
+	 * Method to pass every value in order to an action, decoding each block
+	 * once.
+	 *
+	 * @param action The action to perform on every value.
+	 */
+	public void forEach(IntConsumer action) {
+		int[] buffer = new int[BLOCK_SIZE];
+		for (int block = 0; block < firsts.length; block++) {
+			int count = decodeBlock(block, buffer);
+			for (int i = 0; i < count; i++) {
+				action.accept(buffer[i]);
+			}
+		}
+	}
+
+	/**
+	 * Method to decode every value.
+	 *
+	 * @return A new array holding the values.
+	 */
+	public int[] toArray() {
+		int[] values = new int[size];
+		int[] next = { 0 };
+		forEach(value -> values[next[0]++] = value);
+		return values;
+	}
+
+	/**
+	 * Method to get the memory used by the packed values and the block index.
+	 *
+	 * @return The size in bytes, without object headers.
+	 */
+	public long sizeInBytes() {
+		return 8L * words.length + 8L * offsets.length + widths.length + 4L * (firsts.length + mins.length + maxs.length);
+	}
+}
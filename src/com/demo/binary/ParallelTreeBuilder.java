@@ -0,0 +1,269 @@
+package com.demo.binary;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Class providing bulk construction of trees from arrays, split across the
+ * threads of a {@link ForkJoinPool}.
+ *
+ * A build splits the index range of the array in two at every node: one half
+ * is forked to another worker while the current worker builds the other, until
+ * the parts are small enough to be built by a plain recursion. The parts share
+ * nothing, so the build scales with the number of cores until memory bandwidth
+ * runs out.
+ */
+public final class ParallelTreeBuilder {
+
+	/** Number of nodes below which a part is built by the current worker. */
+	static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+
+	private ParallelTreeBuilder() {
+	}
+
+	/**
+	 * Method to build a complete tree whose level-order values are the array,
+	 * like the dummy tree. Node i has the children 2i+1 and 2i+2.
+	 *
+	 * @param values The values in level order.
+	 * @return The root node of the tree.
+	 */
+	public static TreeNode<Integer> complete(int[] values) {
+		return complete(values, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Method to build a complete tree whose level-order values are the array.
+	 *
+	 * @param values The values in level order.
+	 * @param pool   The pool running the build.
+	 * @return The root node of the tree.
+	 */
+	public static TreeNode<Integer> complete(int[] values, ForkJoinPool pool) {
+		return values.length == 0 ? null : pool.invoke(new CompleteTask(values, 0, 0));
+	}
+
+	/**
+	 * Method to build a balanced tree whose in-order values are the array, the
+	 * middle value of every range becoming the root of its subtree. A sorted
+	 * array gives a balanced ordered (BST) tree.
+	 *
+	 * @param values The values in in-order.
+	 * @return The root node of the tree.
+	 */
+	public static TreeNode<Integer> balanced(int[] values) {
+		return balanced(values, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Method to build a balanced tree whose in-order values are the array.
+	 *
+	 * @param values The values in in-order.
+	 * @param pool   The pool running the build.
+	 * @return The root node of the tree.
+	 */
+	public static TreeNode<Integer> balanced(int[] values, ForkJoinPool pool) {
+		return values.length == 0 ? null : pool.invoke(new BalancedTask(values, 0, values.length));
+	}
+
+	/**
+	 * Method to build the array-backed (succinct) form of a complete tree whose
+	 * level-order values are the array, without creating any node. In a complete
+	 * tree of n nodes the child bits are simply n-1 ones, so only the values are
+	 * copied, in parallel.
+	 *
+	 * @param values The values in level order.
+	 * @return The succinct tree.
+	 */
+	public static SuccinctTree completeLayout(int[] values) {
+		return completeLayout(values, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Method to build the array-backed (succinct) form of a complete tree.
+	 *
+	 * @param values The values in level order.
+	 * @param pool   The pool running the copy.
+	 * @return The succinct tree.
+	 */
+	public static SuccinctTree completeLayout(int[] values, ForkJoinPool pool) {
+		int size = values.length;
+		int[] copy = new int[size];
+		pool.invoke(new CopyTask(values, copy, 0, size));
+
+		// Bits 0 to n-2 are set: every node but the root is a child
+		long ones = Math.max(0, size - 1);
+		long[] words = new long[(int) ((2L * size + 63) >>> 6)];
+		Arrays.fill(words, 0, (int) (ones >>> 6), -1L);
+		if ((ones & 63) != 0) {
+			words[(int) (ones >>> 6)] = (1L << ones) - 1;
+		}
+
+		// Level k starts at node 2^k - 1
+		int levels = 32 - Integer.numberOfLeadingZeros(size);
+		int[] levelStarts = new int[levels];
+		for (int level = 0; level < levels; level++) {
+			levelStarts[level] = (1 << level) - 1;
+		}
+		return new SuccinctTree(new BitVector(words, 2L * size), copy, levelStarts);
+	}
+
+	/**
+	 * Class representing the build of the complete subtree rooted at one
+	 * level-order position.
+	 */
+	private static final class CompleteTask extends RecursiveTask<TreeNode<Integer>> {
+		private static final long serialVersionUID = 1L;
+
+		private final int[] values;
+		private final int index;
+		private final int depth;
+
+		/**
+		 * Constructor to initialize the build of a subtree.
+		 *
+		 * @param values The values in level order.
+		 * @param index  The level-order position of the subtree root.
+		 * @param depth  The depth of the subtree root.
+		 */
+		CompleteTask(int[] values, int index, int depth) {
+			this.values = values;
+			this.index = index;
+			this.depth = depth;
+		}
+
+		@Override
+		protected TreeNode<Integer> compute() {
+			if ((values.length >>> depth) <= SEQUENTIAL_THRESHOLD) {
+				return build(index);
+			}
+			TreeNode<Integer> node = new TreeNode<>(values[index]);
+			long left = 2L * index + 1;
+			CompleteTask right = null;
+			if (left + 1 < values.length) {
+				right = new CompleteTask(values, (int) left + 1, depth + 1);
+				right.fork();
+			}
+			if (left < values.length) {
+				node.left = new CompleteTask(values, (int) left, depth + 1).compute();
+			}
+			if (right != null) {
+				node.right = right.join();
+			}
+			return node;
+		}
+
+		/**
+		 * Helper method to build a subtree on the current worker.
+		 *
+		 * @param index The level-order position of the subtree root.
+		 * @return The root node of the subtree.
+		 */
+		private TreeNode<Integer> build(int index) {
+			TreeNode<Integer> node = new TreeNode<>(values[index]);
+			long left = 2L * index + 1;
+			if (left < values.length) {
+				node.left = build((int) left);
+			}
+			if (left + 1 < values.length) {
+				node.right = build((int) left + 1);
+			}
+			return node;
+		}
+	}
+
+	/**
+	 * Class representing the build of the balanced subtree of an index range.
+	 */
+	private static final class BalancedTask extends RecursiveTask<TreeNode<Integer>> {
+		private static final long serialVersionUID = 1L;
+
+		private final int[] values;
+		private final int from;
+		private final int to;
+
+		/**
+		 * Constructor to initialize the build of a subtree.
+		 *
+		 * @param values The values in in-order.
+		 * @param from   The first position of the range.
+		 * @param to     The end of the range (exclusive).
+		 */
+		BalancedTask(int[] values, int from, int to) {
+			this.values = values;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected TreeNode<Integer> compute() {
+			if (to - from <= SEQUENTIAL_THRESHOLD) {
+				return build(from, to);
+			}
+			int middle = (from + to) >>> 1;
+			TreeNode<Integer> node = new TreeNode<>(values[middle]);
+			BalancedTask right = new BalancedTask(values, middle + 1, to);
+			right.fork();
+			node.left = new BalancedTask(values, from, middle).compute();
+			node.right = right.join();
+			return node;
+		}
+
+		/**
+		 * Helper method to build a subtree on the current worker.
+		 *
+		 * @param from The first position of the range.
+		 * @param to   The end of the range (exclusive).
+		 * @return The root node of the subtree, or null for an empty range.
+		 */
+		private TreeNode<Integer> build(int from, int to) {
+			if (from >= to) {
+				return null;
+			}
+			int middle = (from + to) >>> 1;
+			TreeNode<Integer> node = new TreeNode<>(values[middle]);
+			node.left = build(from, middle);
+			node.right = build(middle + 1, to);
+			return node;
+		}
+	}
+
+	/**
+	 * Class representing the copy of an index range of an array.
+	 */
+	private static final class CopyTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int[] source;
+		private final int[] target;
+		private final int from;
+		private final int to;
+
+		/**
+		 * Constructor to initialize the copy of a range.
+		 *
+		 * @param source The array to copy from.
+		 * @param target The array to copy to.
+		 * @param from   The first position of the range.
+		 * @param to     The end of the range (exclusive).
+		 */
+		CopyTask(int[] source, int[] target, int from, int to) {
+			this.source = source;
+			this.target = target;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= SEQUENTIAL_THRESHOLD * 16) {
+				System.arraycopy(source, from, target, from, to - from);
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new CopyTask(source, target, from, middle), new CopyTask(source, target, middle, to));
+		}
+	}
+}
@@ -0,0 +1,435 @@
+package com.demo.binary;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Class providing range queries over an ordered (BST) tree.
+ *
+ * Every query takes an inclusive range [from, to], where a null bound means the
+ * range is open on that side. Subtrees lying completely outside the range are
+ * never visited, so a query costs O(height + k) for k values in range instead
+ * of a full traversal. No query recurses, so degenerate trees of any depth are
+ * supported. Duplicates are expected in the right subtree, as placed
+ * by {@link BinaryTree#insertOrdered(BinaryTree, Object)}.
+ */
+public final class RangeQuery {
+
+	private RangeQuery() {
+	}
+
+	/**
+	 * Method to get a cursor over the values of the range in ascending order.
+	 *
+	 * @param tree The binary tree object.
+	 * @param from The lower bound of the range, or null.
+	 * @param to   The upper bound of the range, or null.
+	 * @return A cursor positioned before the smallest value of the range.
+	 */
+	public static <K> Cursor<K> ascending(BinaryTree<K> tree, K from, K to) {
+		return new Cursor<>(tree.root, from, to, tree.comparator, false);
+	}
+
+	/**
+	 * Method to get a cursor over the values of the range in descending order.
+	 *
+	 * @param tree The binary tree object.
+	 * @param from The lower bound of the range, or null.
+	 * @param to   The upper bound of the range, or null.
+	 * @return A cursor positioned before the largest value of the range.
+	 */
+	public static <K> Cursor<K> descending(BinaryTree<K> tree, K from, K to) {
+		return new Cursor<>(tree.root, from, to, tree.comparator, true);
+	}
+
+	/**
+	 * Method to count the values of the range.
+	 *
+	 * @param tree The binary tree object.
+	 * @param from The lower bound of the range, or null.
+	 * @param to   The upper bound of the range, or null.
+	 * @return The number of values in the range.
+	 */
+	public static <K> long count(BinaryTree<K> tree, K from, K to) {
+		return countHelper(tree.root, from, to, tree.comparator);
+	}
+
+	/**
+	 * Helper method to count the values of the range in a subtree. The walk
+	 * loops down to the first node in range, then counts its left side against
+	 * the lower bound and its right side against the upper bound, so it never
+	 * recurses and handles degenerate trees of any depth.
+	 *
+	 * @param node       The root node of the subtree.
+	 * @param from       The lower bound of the range, or null.
+	 * @param to         The upper bound of the range, or null.
+	 * @param comparator The ordering of the values, or null for the natural order.
+	 * @return The number of values in the range.
+	 */
+	private static <K> long countHelper(TreeNode<K> node, K from, K to, Comparator<? super K> comparator) {
+		while (node != null) {
+			if (from != null && Keys.compare(node.data, from, comparator) < 0) {
+				node = node.right; // The node and its left subtree are below the range
+			} else if (to != null && Keys.compare(node.data, to, comparator) > 0) {
+				node = node.left; // The node and its right subtree are above the range
+			} else {
+				return 1 + countAtLeast(node.left, from, comparator) + countAtMost(node.right, to, comparator);
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Helper method to count the values of a subtree that are at least the bound.
+	 * Whenever a node is in range its whole right subtree is too.
+	 *
+	 * @param node       The root node of the subtree.
+	 * @param from       The lower bound of the range, or null.
+	 * @param comparator The ordering of the values, or null for the natural order.
+	 * @return The number of values in the range.
+	 */
+	private static <K> long countAtLeast(TreeNode<K> node, K from, Comparator<? super K> comparator) {
+		long count = 0;
+		while (node != null) {
+			if (from != null && Keys.compare(node.data, from, comparator) < 0) {
+				node = node.right;
+			} else {
+				count += 1 + size(node.right);
+				node = node.left;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Helper method to count the values of a subtree that are at most the bound.
+	 * Whenever a node is in range its whole left subtree is too.
+	 *
+	 * @param node       The root node of the subtree.
+	 * @param to         The upper bound of the range, or null.
+	 * @param comparator The ordering of the values, or null for the natural order.
+	 * @return The number of values in the range.
+	 */
+	private static <K> long countAtMost(TreeNode<K> node, K to, Comparator<? super K> comparator) {
+		long count = 0;
+		while (node != null) {
+			if (to != null && Keys.compare(node.data, to, comparator) > 0) {
+				node = node.left;
+			} else {
+				count += 1 + size(node.left);
+				node = node.right;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Method to sum the values of the range in a tree of int values. Without a
+	 * comparator the walk neither boxes nor calls compareTo; with one the bounds
+	 * follow its order, like {@link #count(BinaryTree, Object, Object)}.
+	 *
+	 * @param tree The binary tree object.
+	 * @param from The lower bound of the range.
+	 * @param to   The upper bound of the range.
+	 * @return The sum of the values in the range.
+	 */
+	public static long sum(BinaryTree<Integer> tree, int from, int to) {
+		if (tree.comparator != null) {
+			return sumHelper(tree.root, from, to, tree.comparator);
+		}
+		long sum = 0;
+		TreeNode<Integer> node = tree.root;
+		while (node != null) {
+			int data = node.data;
+			if (data < from) {
+				node = node.right;
+			} else if (data > to) {
+				node = node.left;
+			} else {
+				sum += data + sumAtLeast(node.left, from) + sumAtMost(node.right, to);
+				break;
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Helper method to sum the values of the range in a subtree ordered by a
+	 * comparator, walking it like {@link #countHelper}.
+	 *
+	 * @param node       The root node of the subtree.
+	 * @param from       The lower bound of the range.
+	 * @param to         The upper bound of the range.
+	 * @param comparator The ordering of the values.
+	 * @return The sum of the values in the range.
+	 */
+	private static long sumHelper(TreeNode<Integer> node, Integer from, Integer to,
+			Comparator<? super Integer> comparator) {
+		while (node != null) {
+			if (comparator.compare(node.data, from) < 0) {
+				node = node.right; // The node and its left subtree are below the range
+			} else if (comparator.compare(node.data, to) > 0) {
+				node = node.left; // The node and its right subtree are above the range
+			} else {
+				return node.data + sumAtLeast(node.left, from, comparator) + sumAtMost(node.right, to, comparator);
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Helper method to sum the values of a subtree ordered by a comparator that
+	 * are at least the bound.
+	 *
+	 * @param node       The root node of the subtree.
+	 * @param from       The lower bound of the range.
+	 * @param comparator The ordering of the values.
+	 * @return The sum of the values in the range.
+	 */
+	private static long sumAtLeast(TreeNode<Integer> node, Integer from, Comparator<? super Integer> comparator) {
+		long sum = 0;
+		while (node != null) {
+			if (comparator.compare(node.data, from) < 0) {
+				node = node.right;
+			} else {
+				sum += node.data + sumAll(node.right);
+				node = node.left;
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Helper method to sum the values of a subtree ordered by a comparator that
+	 * are at most the bound.
+	 *
+	 * @param node       The root node of the subtree.
+	 * @param to         The upper bound of the range.
+	 * @param comparator The ordering of the values.
+	 * @return The sum of the values in the range.
+	 */
+	private static long sumAtMost(TreeNode<Integer> node, Integer to, Comparator<? super Integer> comparator) {
+		long sum = 0;
+		while (node != null) {
+			if (comparator.compare(node.data, to) > 0) {
+				node = node.left;
+			} else {
+				sum += node.data + sumAll(node.left);
+				node = node.right;
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Helper method to sum the values of a subtree that are at least the bound.
+	 * Whenever a node is in range its whole right subtree is too.
+	 *
+	 * @param node The root node of the subtree.
+	 * @param from The lower bound of the range.
+	 * @return The sum of the values in the range.
+	 */
+	private static long sumAtLeast(TreeNode<Integer> node, int from) {
+		long sum = 0;
+		while (node != null) {
+			if (node.data < from) {
+				node = node.right;
+			} else {
+				sum += node.data + sumAll(node.right);
+				node = node.left;
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Helper method to sum the values of a subtree that are at most the bound.
+	 * Whenever a node is in range its whole left subtree is too.
+	 *
+	 * @param node The root node of the subtree.
+	 * @param to   The upper bound of the range.
+	 * @return The sum of the values in the range.
+	 */
+	private static long sumAtMost(TreeNode<Integer> node, int to) {
+		long sum = 0;
+		while (node != null) {
+			if (node.data > to) {
+				node = node.left;
+			} else {
+				sum += node.data + sumAll(node.left);
+				node = node.right;
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Helper method to sum every value of a subtree. The walk keeps its own
+	 * stack of pending right children, so subtrees of any depth can be summed.
+	 *
+	 * @param node The root node of the subtree.
+	 * @return The sum of the values.
+	 */
+	@SuppressWarnings("unchecked")
+	private static long sumAll(TreeNode<Integer> node) {
+		long sum = 0;
+		TreeNode<Integer>[] stack = (TreeNode<Integer>[]) new TreeNode<?>[32];
+		int size = 0;
+		while (node != null) {
+			sum += node.data;
+			if (node.right != null) {
+				if (size == stack.length) {
+					stack = Arrays.copyOf(stack, size * 2);
+				}
+				stack[size++] = node.right;
+			}
+			node = node.left != null ? node.left : size > 0 ? stack[--size] : null;
+		}
+		return sum;
+	}
+
+	/**
+	 * Helper method to count every node of a subtree, keeping its own stack like
+	 * {@link #sumAll(TreeNode)}.
+	 *
+	 * @param node The root node of the subtree.
+	 * @return The number of nodes.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <K> long size(TreeNode<K> node) {
+		long count = 0;
+		TreeNode<K>[] stack = (TreeNode<K>[]) new TreeNode<?>[32];
+		int size = 0;
+		while (node != null) {
+			count++;
+			if (node.right != null) {
+				if (size == stack.length) {
+					stack = Arrays.copyOf(stack, size * 2);
+				}
+				stack[size++] = node.right;
+			}
+			node = node.left != null ? node.left : size > 0 ? stack[--size] : null;
+		}
+		return count;
+	}
+
+	/**
+	 * Class representing a cursor over the values of a range, in ascending or
+	 * descending order.
+	 *
+	 * The cursor keeps the path of pending ancestors on an array stack, so it
+	 * holds O(height) nodes and every step is amortized O(1). The tree must not be
+	 * modified while a cursor is in use.
+	 *
+	 * @param <K> The type of the values stored in the tree.
+	 */
+	public static final class Cursor<K> implements Iterator<K> {
+
+		private final K from;
+		private final K to;
+		private final Comparator<? super K> comparator;
+		private final boolean descending;
+
+		private TreeNode<K>[] stack;
+		private int size;
+
+		/**
+		 * Constructor to initialize a cursor positioned before the first value of
+		 * the range.
+		 *
+		 * @param root       The root node of the tree.
+		 * @param from       The lower bound of the range, or null.
+		 * @param to         The upper bound of the range, or null.
+		 * @param comparator The ordering of the values, or null for the natural
+		 *                   order.
+		 * @param descending true to walk the range from its largest value.
+		 */
+		@SuppressWarnings("unchecked")
+		Cursor(TreeNode<K> root, K from, K to, Comparator<? super K> comparator, boolean descending) {
+			this.from = from;
+			this.to = to;
+			this.comparator = comparator;
+			this.descending = descending;
+			stack = (TreeNode<K>[]) new TreeNode<?>[32];
+			size = 0;
+			descend(root);
+		}
+
+		/**
+		 * Helper method to push the path towards the first value of the range that
+		 * is still to be visited in a subtree.
+		 *
+		 * @param node The root node of the subtree.
+		 */
+		private void descend(TreeNode<K> node) {
+			while (node != null) {
+				if (descending) {
+					if (to != null && Keys.compare(node.data, to, comparator) > 0) {
+						node = node.left;
+					} else {
+						push(node);
+						node = node.right;
+					}
+				} else {
+					if (from != null && Keys.compare(node.data, from, comparator) < 0) {
+						node = node.right;
+					} else {
+						push(node);
+						node = node.left;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Helper method to push a node, growing the stack when needed.
+		 *
+		 * @param node The node to push.
+		 */
+		private void push(TreeNode<K> node) {
+			if (size == stack.length) {
+				stack = Arrays.copyOf(stack, size * 2);
+			}
+			stack[size++] = node;
+		}
+
+		/**
+		 * Method to check if the range has more values.
+		 *
+		 * @return true if another value is available, false otherwise.
+		 */
+		@Override
+		public boolean hasNext() {
+			if (size == 0) {
+				return false;
+			}
+			K data = stack[size - 1].data;
+			boolean inRange = descending ? from == null || Keys.compare(data, from, comparator) >= 0
+					: to == null || Keys.compare(data, to, comparator) <= 0;
+			if (!inRange) {
+				Arrays.fill(stack, 0, size, null); // Past the end of the range
+				size = 0;
+			}
+			return inRange;
+		}
+
+		/**
+		 * Method to get the next value of the range.
+		 *
+		 * @return The next value.
+		 * @throws NoSuchElementException If the range has no more values.
+		 */
+		@Override
+		public K next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			TreeNode<K> node = stack[--size];
+			stack[size] = null;
+			descend(descending ? node.left : node.right);
+			return node.data;
+		}
+	}
+}
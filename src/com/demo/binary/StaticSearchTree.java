@@ -0,0 +1,209 @@
+package com.demo.binary;
+
+import java.util.Arrays;
+
+/**
+ * Class representing a read-only search structure over the int values of a
+ * tree, laid out as an implicit B+ tree for lookups with few cache misses.
+ *
+ * Every node holds 16 keys, 64 bytes or one cache line, and has 17 children
+ * found by arithmetic instead of pointers: child c of node j of a layer is node
+ * j * 17 + c of the layer below. The bottom layer holds every key in sorted
+ * order, padded to whole nodes with Integer.MAX_VALUE, so a lookup ends on a
+ * position of the sorted keys and ranges are read sequentially from there. Key
+ * c of an upper node is the smallest key under its child c + 1, so a lookup
+ * descends by counting the keys smaller than the value in each node, which is
+ * done with {@link IntKernels}. A lookup touches one cache line per layer, about
+ * log17(n) layers instead of log2(n) nodes of a BST.
+ */
+public final class StaticSearchTree {
+
+	static final int NODE_KEYS = 16;
+
+	private final int size;
+	private final int[] keys; // All the layers, the sorted keys first
+	private final int[] layerStarts; // Position of the first key of every layer, bottom up
+
+	/**
+	 * Constructor to initialize the layers from sorted keys.
+	 *
+	 * @param sorted The keys in ascending order; not copied.
+	 */
+	private StaticSearchTree(int[] sorted) {
+		size = sorted.length;
+		int[] nodes = new int[8]; // Number of nodes of every layer
+		int layers = 0;
+		int count = Math.max(1, (size + NODE_KEYS - 1) / NODE_KEYS);
+		nodes[layers++] = count;
+		while (count > 1) {
+			count = (count + NODE_KEYS) / (NODE_KEYS + 1);
+			if (layers == nodes.length) {
+				nodes = Arrays.copyOf(nodes, layers * 2);
+			}
+			nodes[layers++] = count;
+		}
+		layerStarts = new int[layers + 1];
+		for (int layer = 0; layer < layers; layer++) {
+			layerStarts[layer + 1] = layerStarts[layer] + nodes[layer] * NODE_KEYS;
+		}
+		keys = Arrays.copyOf(sorted, layerStarts[layers]);
+		Arrays.fill(keys, size, layerStarts[1], Integer.MAX_VALUE);
+		for (int layer = 1; layer < layers; layer++) {
+			for (int node = 0; node < nodes[layer]; node++) {
+				for (int c = 0; c < NODE_KEYS; c++) {
+					// Leftmost bottom node under child c + 1
+					long leaf = (long) node * (NODE_KEYS + 1) + c + 1;
+					for (int below = layer - 1; below > 0; below--) {
+						leaf *= NODE_KEYS + 1;
+					}
+					keys[layerStarts[layer] + node * NODE_KEYS + c] = leaf * NODE_KEYS < size
+							? sorted[(int) (leaf * NODE_KEYS)]
+							: Integer.MAX_VALUE;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Method to build the search structure of the values of a tree. The values
+	 * of an ordered (BST) tree are collected already sorted; those of any other
+	 * tree are sorted first.
+	 *
+	 * @param root The root node of the tree.
+	 * @return The search structure.
+	 */
+	@SuppressWarnings("unchecked")
+	public static StaticSearchTree build(TreeNode<Integer> root) {
+		int[] values = new int[16];
+		int size = 0;
+		boolean sorted = true;
+		TreeNode<Integer>[] stack = (TreeNode<Integer>[]) new TreeNode<?>[16];
+		int top = 0;
+		TreeNode<Integer> current = root;
+		while (current != null || top > 0) {
+			while (current != null) {
+				if (top == stack.length) {
+					stack = Arrays.copyOf(stack, top * 2);
+				}
+				stack[top++] = current;
+				current = current.left;
+			}
+			current = stack[--top];
+			stack[top] = null;
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			if (size > 0 && current.data < values[size - 1]) {
+				sorted = false;
+			}
+			values[size++] = current.data;
+			current = current.right;
+		}
+		values = Arrays.copyOf(values, size);
+		if (!sorted) {
+			Arrays.sort(values);
+		}
+		return new StaticSearchTree(values);
+	}
+
+	/**
+	 * Method to build the search structure of an array of values.
+	 *
+	 * @param values The values, in any order; not modified.
+	 * @return The search structure.
+	 */
+	public static StaticSearchTree of(int[] values) {
+		int[] sorted = values.clone();
+		Arrays.sort(sorted);
+		return new StaticSearchTree(sorted);
+	}
+
+	/**
+	 * Method to get the number of keys.
+	 *
+	 * @return The size of the structure.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Method to get a key by its position in ascending order.
+	 *
+	 * @param position The position, 0 being the smallest key.
+	 * @return The key.
+	 */
+	public int key(int position) {
+		if (position < 0 || position >= size) {
+			throw new IndexOutOfBoundsException("Index " + position + " out of bounds for size " + size);
+		}
+		return keys[position];
+	}
+
+	/**
+	 * Method to find the start of the range of keys at least equal to a value.
+	 * The keys of the range are then {@code key(position)} onwards.
+	 *
+	 * @param value The lower bound of the range.
+	 * @return The position of the first key not smaller than the value, or the
+	 *         size if every key is smaller.
+	 */
+	public int lowerBound(int value) {
+		if (value == Integer.MIN_VALUE) {
+			return 0; // No key is smaller
+		}
+		int node = 0;
+		for (int layer = layerStarts.length - 2; layer > 0; layer--) {
+			int start = layerStarts[layer] + node * NODE_KEYS;
+			node = node * (NODE_KEYS + 1) + countSmaller(start, value);
+		}
+		int position = node * NODE_KEYS + countSmaller(node * NODE_KEYS, value);
+		return Math.min(position, size); // Padding keys equal to the value are not keys
+	}
+
+	/**
+	 * Helper method to count the keys of a node smaller than a value.
+	 *
+	 * @param start The position of the first key of the node.
+	 * @param value The value, greater than Integer.MIN_VALUE.
+	 * @return The number of smaller keys.
+	 */
+	private int countSmaller(int start, int value) {
+		return IntKernels.countBetween(keys, start, start + NODE_KEYS, Integer.MIN_VALUE, value - 1);
+	}
+
+	/**
+	 * Method to search for a value.
+	 *
+	 * @param value The value to find.
+	 * @return true if the value is a key, false otherwise.
+	 */
+	public boolean contains(int value) {
+		int position = lowerBound(value);
+		return position < size && keys[position] == value;
+	}
+
+	/**
+	 * Method to count the keys in a range.
+	 *
+	 * @param from The smallest value of the range.
+	 * @param to   The largest value of the range.
+	 * @return The number of keys in [from, to].
+	 */
+	public int count(int from, int to) {
+		if (from > to) {
+			return 0;
+		}
+		int end = to == Integer.MAX_VALUE ? size : lowerBound(to + 1);
+		return end - lowerBound(from);
+	}
+
+	/**
+	 * Method to get the memory used by the keys of every layer.
+	 *
+	 * @return The size in bytes, without object headers.
+	 */
+	public long sizeInBytes() {
+		return 4L * keys.length + 4L * layerStarts.length;
+	}
+}
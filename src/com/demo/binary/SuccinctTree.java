@@ -0,0 +1,335 @@
+package com.demo.binary;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Class representing a read-only binary tree of int values in succinct form,
+ * without any pointers.
+ *
+ * Nodes are numbered 0 to n-1 in level order. The shape is a LOUDS bit vector
+ * of 2n bits: bits 2i and 2i+1 tell whether node i has a left and a right child.
+ * Because children are numbered in the same order as their bits, the child at
+ * bit p is node rank1(p) + 1 and the parent of node j sits at bit select1(j-1).
+ * Values are packed in an int array indexed by node number, and the first node
+ * of every level is kept so that depth is a binary search over the levels.
+ *
+ * Shape costs about 2.25 bits per node instead of two references, so a tree
+ * takes roughly 4.3 bytes per node in total.
+ */
+public final class SuccinctTree {
+
+	/** Node number returned when a node does not exist. */
+	public static final int NONE = -1;
+
+	private final BitVector shape;
+	private final int[] values;
+	private final int[] levelStarts;
+
+	/**
+	 * Constructor to initialize a succinct tree from its parts.
+	 *
+	 * @param shape       The LOUDS bits of the shape.
+	 * @param values      The values in level order.
+	 * @param levelStarts The number of the first node of every level.
+	 */
+	SuccinctTree(BitVector shape, int[] values, int[] levelStarts) {
+		this.shape = shape;
+		this.values = values;
+		this.levelStarts = levelStarts;
+	}
+
+	/**
+	 * Method to build the succinct form of a tree.
+	 *
+	 * @param root The root node of the tree.
+	 * @return The succinct tree.
+	 */
+	public static SuccinctTree build(TreeNode<Integer> root) {
+		int size = countNodes(root);
+		@SuppressWarnings("unchecked")
+		TreeNode<Integer>[] order = (TreeNode<Integer>[]) new TreeNode<?>[size];
+		int[] values = new int[size];
+		long[] words = new long[(int) ((2L * size + 63) >>> 6)];
+		int[] levelStarts = new int[16];
+		int levels = 0;
+
+		// Level-order walk using the output array as the queue
+		int tail = 0;
+		if (root != null) {
+			order[tail++] = root;
+		}
+		int levelEnd = 0;
+		for (int head = 0; head < tail; head++) {
+			if (head == levelEnd) {
+				if (levels == levelStarts.length) {
+					levelStarts = Arrays.copyOf(levelStarts, levels * 2);
+				}
+				levelStarts[levels++] = head;
+				levelEnd = tail;
+			}
+			TreeNode<Integer> node = order[head];
+			values[head] = node.data;
+			if (node.left != null) {
+				long bit = 2L * head;
+				words[(int) (bit >>> 6)] |= 1L << bit;
+				order[tail++] = node.left;
+			}
+			if (node.right != null) {
+				long bit = 2L * head + 1;
+				words[(int) (bit >>> 6)] |= 1L << bit;
+				order[tail++] = node.right;
+			}
+		}
+		return new SuccinctTree(new BitVector(words, 2L * size), values, Arrays.copyOf(levelStarts, levels));
+	}
+
+	/**
+	 * Helper method to count the nodes of a tree.
+	 *
+	 * @param root The root node of the tree.
+	 * @return The number of nodes.
+	 */
+	private static int countNodes(TreeNode<Integer> root) {
+		int count = 0;
+		while (root != null) {
+			count += 1 + countNodes(root.left);
+			root = root.right;
+		}
+		return count;
+	}
+
+	/**
+	 * Method to get the number of nodes.
+	 *
+	 * @return The size of the tree.
+	 */
+	public int size() {
+		return values.length;
+	}
+
+	/**
+	 * Method to get the root node.
+	 *
+	 * @return 0, or NONE if the tree is empty.
+	 */
+	public int root() {
+		return values.length == 0 ? NONE : 0;
+	}
+
+	/**
+	 * Method to get the value of a node.
+	 *
+	 * @param node The node number.
+	 * @return The value of the node.
+	 */
+	public int value(int node) {
+		return values[node];
+	}
+
+	/**
+	 * Method to get the left child of a node.
+	 *
+	 * @param node The node number.
+	 * @return The left child, or NONE.
+	 */
+	public int left(int node) {
+		return child(2L * node);
+	}
+
+	/**
+	 * Method to get the right child of a node.
+	 *
+	 * @param node The node number.
+	 * @return The right child, or NONE.
+	 */
+	public int right(int node) {
+		return child(2L * node + 1);
+	}
+
+	/**
+	 * Helper method to get the child described by a shape bit.
+	 *
+	 * @param bit The position of the bit.
+	 * @return The child, or NONE.
+	 */
+	private int child(long bit) {
+		return shape.get(bit) ? (int) shape.rank1(bit) + 1 : NONE;
+	}
+
+	/**
+	 * Method to check if a node is a leaf.
+	 *
+	 * @param node The node number.
+	 * @return true if the node has no children, false otherwise.
+	 */
+	public boolean isLeaf(int node) {
+		return !shape.get(2L * node) && !shape.get(2L * node + 1);
+	}
+
+	/**
+	 * Method to get the parent of a node.
+	 *
+	 * @param node The node number.
+	 * @return The parent, or NONE for the root.
+	 */
+	public int parent(int node) {
+		return node == 0 ? NONE : (int) (shape.select1(node - 1) >>> 1);
+	}
+
+	/**
+	 * Method to get the sibling of a node.
+	 *
+	 * @param node The node number.
+	 * @return The other child of its parent, or NONE.
+	 */
+	public int sibling(int node) {
+		if (node == 0) {
+			return NONE;
+		}
+		long bit = shape.select1(node - 1);
+		return child(bit ^ 1); // The left and right bits of a parent differ in the last bit
+	}
+
+	/**
+	 * Method to get the depth of a node, the root being at depth 0.
+	 *
+	 * @param node The node number.
+	 * @return The depth of the node.
+	 */
+	public int depth(int node) {
+		int index = Arrays.binarySearch(levelStarts, node);
+		return index >= 0 ? index : -index - 2;
+	}
+
+	/**
+	 * Method to get the height of the tree, counted in nodes like
+	 * {@link BinaryTree#calculateHeight(TreeNode)}.
+	 *
+	 * @return The number of levels.
+	 */
+	public int height() {
+		return levelStarts.length;
+	}
+
+	/**
+	 * Method to count the nodes in the subtree of a node. The descendants of a
+	 * node on every level are consecutive in level order, so the subtree is
+	 * measured one level at a time with two rank queries per level.
+	 *
+	 * @param node The node number.
+	 * @return The number of nodes in the subtree, including the node.
+	 */
+	public int subtreeSize(int node) {
+		long first = node;
+		long last = node;
+		long size = 0;
+		while (first <= last) {
+			size += last - first + 1;
+			long before = shape.rank1(2 * first);
+			long children = shape.rank1(2 * last + 2) - before;
+			first = before + 1;
+			last = first + children - 1;
+		}
+		return (int) size;
+	}
+
+	/**
+	 * Method to sum the values in the subtree of a node, one level at a time
+	 * like {@link #subtreeSize(int)}.
+	 *
+	 * @param node The node number.
+	 * @return The sum of the values in the subtree, including the node.
+	 */
+	public long subtreeSum(int node) {
+		long first = node;
+		long last = node;
+		long sum = 0;
+		while (first <= last) {
+			sum += IntKernels.sum(values, (int) first, (int) last + 1);
+			long before = shape.rank1(2 * first);
+			long children = shape.rank1(2 * last + 2) - before;
+			first = before + 1;
+			last = first + children - 1;
+		}
+		return sum;
+	}
+
+	/**
+	 * Method to find the first node holding a value, in level order. The values
+	 * are scanned with {@link IntKernels}, vectorized when possible.
+	 *
+	 * @param value The value to find.
+	 * @return The node number, or NONE if the value is absent.
+	 */
+	public int find(int value) {
+		int node = IntKernels.indexOf(values, 0, values.length, value);
+		return node < 0 ? NONE : node;
+	}
+
+	/**
+	 * Method to count the nodes holding a value.
+	 *
+	 * @param value The value to count.
+	 * @return The number of nodes holding the value.
+	 */
+	public int count(int value) {
+		return IntKernels.count(values, 0, values.length, value);
+	}
+
+	/**
+	 * Method to count the nodes holding a value in a range.
+	 *
+	 * @param from The smallest value to count.
+	 * @param to   The largest value to count.
+	 * @return The number of nodes holding a value in [from, to].
+	 */
+	public int count(int from, int to) {
+		return IntKernels.countBetween(values, 0, values.length, from, to);
+	}
+
+	/**
+	 * Method to get the smallest value of the tree.
+	 *
+	 * @return The minimum value.
+	 * @throws NoSuchElementException If the tree is empty.
+	 */
+	public int min() {
+		if (values.length == 0) {
+			throw new NoSuchElementException("The tree is empty");
+		}
+		return IntKernels.min(values, 0, values.length);
+	}
+
+	/**
+	 * Method to get the largest value of the tree.
+	 *
+	 * @return The maximum value.
+	 * @throws NoSuchElementException If the tree is empty.
+	 */
+	public int max() {
+		if (values.length == 0) {
+			throw new NoSuchElementException("The tree is empty");
+		}
+		return IntKernels.max(values, 0, values.length);
+	}
+
+	/**
+	 * Method to sum the values of the tree.
+	 *
+	 * @return The sum of the values.
+	 */
+	public long sum() {
+		return IntKernels.sum(values, 0, values.length);
+	}
+
+	/**
+	 * Method to get the memory used by the shape, the values and the level
+	 * table.
+	 *
+	 * @return The size in bytes, without object headers.
+	 */
+	public long sizeInBytes() {
+		return shape.sizeInBytes() + 4L * values.length + 4L * levelStarts.length;
+	}
+}
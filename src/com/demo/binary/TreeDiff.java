@@ -0,0 +1,266 @@
+package com.demo.binary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Class providing structural hashing, equality and diffs of binary trees.
+ *
+ * Every subtree has a Merkle-style hash built from the hash of its root value
+ * and the hashes of its two subtrees, so the left and right positions count.
+ * The hash is cached in every node next to its height and recomputed only for
+ * the paths changed since the last call, which makes hashing a tree after a
+ * mutation O(height) instead of O(n).
+ *
+ * Values enter the hash with 64 bits: integral and floating point values by
+ * their full bits and strings through a 64-bit FNV-1a hash, so that distinct
+ * values practically never collide. Other types only have their 32-bit
+ * hashCode, so the diff also compares the root values of two subtrees before
+ * skipping them as identical.
+ *
+ * A diff compares the hashes first and skips every identical subtree, so it
+ * visits O(changes * height) nodes. Two different subtrees share a 64-bit hash
+ * with negligible probability, which the diff accepts; {@link #equals} confirms
+ * equal hashes by comparing the nodes.
+ */
+public final class TreeDiff {
+
+	/** Hash of an empty subtree. */
+	static final long EMPTY = 0x6A09E667F3BCC908L;
+
+	/**
+	 * Class representing a difference between two trees at one position.
+	 */
+	public static final class Change<K> {
+
+		/**
+		 * Enum representing the kinds of differences.
+		 */
+		public enum Type {
+			ADDED, // The subtree exists only in the second tree
+			REMOVED, // The subtree exists only in the first tree
+			CHANGED // Both trees have a node here, holding different values
+		}
+
+		private final Type type;
+		private final String path;
+		private final TreeNode<K> before;
+		private final TreeNode<K> after;
+
+		/**
+		 * Constructor to initialize a change.
+		 *
+		 * @param type   The kind of difference.
+		 * @param path   The steps from the root as 'L' and 'R'.
+		 * @param before The node of the first tree, or null.
+		 * @param after  The node of the second tree, or null.
+		 */
+		Change(Type type, String path, TreeNode<K> before, TreeNode<K> after) {
+			this.type = type;
+			this.path = path;
+			this.before = before;
+			this.after = after;
+		}
+
+		/**
+		 * Method to get the kind of difference.
+		 *
+		 * @return The type of the change.
+		 */
+		public Type getType() {
+			return type;
+		}
+
+		/**
+		 * Method to get the position of the change.
+		 *
+		 * @return The steps from the root as 'L' and 'R', empty for the root.
+		 */
+		public String getPath() {
+			return path;
+		}
+
+		/**
+		 * Method to get the node of the first tree at the position. For an
+		 * addition or a removal the whole subtree is the difference; for a value
+		 * change only the node itself is, its subtrees being reported separately.
+		 *
+		 * @return The node, or null when the subtree was added.
+		 */
+		public TreeNode<K> getBefore() {
+			return before;
+		}
+
+		/**
+		 * Method to get the node of the second tree at the position.
+		 *
+		 * @return The node, or null when the subtree was removed.
+		 */
+		public TreeNode<K> getAfter() {
+			return after;
+		}
+
+		@Override
+		public String toString() {
+			String where = path.isEmpty() ? "root" : path;
+			switch (type) {
+			case ADDED:
+				return "ADDED " + where + " " + after.data;
+			case REMOVED:
+				return "REMOVED " + where + " " + before.data;
+			default:
+				return "CHANGED " + where + " " + before.data + " -> " + after.data;
+			}
+		}
+	}
+
+	private TreeDiff() {
+	}
+
+	/**
+	 * Method to get the structural hash of a tree, recomputing only the stale
+	 * subtrees.
+	 *
+	 * @param root The root node of the tree.
+	 * @return The hash of the tree.
+	 */
+	public static <K> long hash(TreeNode<K> root) {
+		if (root == null) {
+			return EMPTY;
+		}
+		if (root.height == 0) {
+			BinaryTree.refreshSummary(root);
+		}
+		return root.hash;
+	}
+
+	/**
+	 * Helper method to combine the hash of a value with the hashes of its
+	 * subtrees. The subtree hashes are rotated and multiplied differently so
+	 * that mirrored trees hash differently.
+	 *
+	 * @param data  The value of the node.
+	 * @param left  The hash of the left subtree.
+	 * @param right The hash of the right subtree.
+	 * @return The hash of the subtree rooted at the node.
+	 */
+	static long combine(Object data, long left, long right) {
+		long h = valueHash(data) * 0x9E3779B97F4A7C15L;
+		h ^= Long.rotateLeft(left, 21) * 0xC2B2AE3D27D4EB4FL;
+		h ^= Long.rotateLeft(right, 42) * 0x165667B19E3779F9L;
+		// Final avalanche so that nearby values spread over all the bits
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB93FE1A85E3BL;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	/**
+	 * Helper method to hash a value with 64 bits where its type allows it.
+	 *
+	 * @param data The value, possibly null.
+	 * @return The hash of the value.
+	 */
+	static long valueHash(Object data) {
+		if (data instanceof Long || data instanceof Integer || data instanceof Short || data instanceof Byte) {
+			return ((Number) data).longValue();
+		} else if (data instanceof Double || data instanceof Float) {
+			return Double.doubleToLongBits(((Number) data).doubleValue());
+		} else if (data instanceof Character) {
+			return (Character) data;
+		} else if (data instanceof String) {
+			String text = (String) data;
+			long h = 0xCBF29CE484222325L; // FNV-1a offset basis
+			for (int i = 0; i < text.length(); i++) {
+				h = (h ^ text.charAt(i)) * 0x100000001B3L;
+			}
+			return h;
+		}
+		return Objects.hashCode(data);
+	}
+
+	/**
+	 * Method to check if two trees have the same shape and the same values.
+	 * Subtrees with different hashes are rejected without being visited.
+	 *
+	 * @param first  The root node of the first tree.
+	 * @param second The root node of the second tree.
+	 * @return true if the trees are equal, false otherwise.
+	 */
+	public static <K> boolean equals(TreeNode<K> first, TreeNode<K> second) {
+		if (hash(first) != hash(second)) {
+			return false;
+		}
+		return equalsHelper(first, second);
+	}
+
+	/**
+	 * Helper method to compare two subtrees whose hashes are known to be
+	 * up to date.
+	 *
+	 * @param first  The root node of the first subtree.
+	 * @param second The root node of the second subtree.
+	 * @return true if the subtrees are equal, false otherwise.
+	 */
+	private static <K> boolean equalsHelper(TreeNode<K> first, TreeNode<K> second) {
+		while (first != second) { // Shared subtrees are equal without a visit
+			if (first == null || second == null || first.hash != second.hash
+					|| !Objects.equals(first.data, second.data) || !equalsHelper(first.left, second.left)) {
+				return false;
+			}
+			first = first.right;
+			second = second.right;
+		}
+		return true;
+	}
+
+	/**
+	 * Method to list the differences between two trees, position by position,
+	 * in pre-order.
+	 *
+	 * @param before The root node of the first tree.
+	 * @param after  The root node of the second tree.
+	 * @return The changes turning the first tree into the second.
+	 */
+	public static <K> List<Change<K>> diff(TreeNode<K> before, TreeNode<K> after) {
+		List<Change<K>> changes = new ArrayList<>();
+		diffHelper(before, after, new StringBuilder(), changes);
+		return changes;
+	}
+
+	/**
+	 * Helper method to list the differences between two subtrees at the same
+	 * position.
+	 *
+	 * @param before  The root node of the first subtree.
+	 * @param after   The root node of the second subtree.
+	 * @param path    The position of the subtrees, restored before returning.
+	 * @param changes The list receiving the changes.
+	 */
+	private static <K> void diffHelper(TreeNode<K> before, TreeNode<K> after, StringBuilder path,
+			List<Change<K>> changes) {
+		if (hash(before) == hash(after)
+				&& (before == after || (before != null && after != null && Objects.equals(before.data, after.data)))) {
+			return; // Identical subtrees
+		}
+		if (before == null) {
+			changes.add(new Change<>(Change.Type.ADDED, path.toString(), null, after));
+			return;
+		}
+		if (after == null) {
+			changes.add(new Change<>(Change.Type.REMOVED, path.toString(), before, null));
+			return;
+		}
+		if (!Objects.equals(before.data, after.data)) {
+			changes.add(new Change<>(Change.Type.CHANGED, path.toString(), before, after));
+		}
+		int length = path.length();
+		diffHelper(before.left, after.left, path.append('L'), changes);
+		path.setLength(length);
+		diffHelper(before.right, after.right, path.append('R'), changes);
+		path.setLength(length);
+	}
+}
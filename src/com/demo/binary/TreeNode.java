@@ -0,0 +1,32 @@
+package com.demo.binary;
+
+/**
+ * Class representing a node in a binary tree.
+ *
+ * The node caches the height and the structural hash (see {@link TreeDiff}) of
+ * its subtree. A height of 0 means both are stale; whenever a node is stale all
+ * of its ancestors are stale too, so the mutations of {@link BinaryTree} only
+ * reset the modified path, up to the first stale ancestor. Code changing links
+ * or values directly must reset the path the same way.
+ *
+ * @param <K> The type of the value stored in the node.
+ */
+class TreeNode<K> {
+	K data;
+	TreeNode<K> left;
+	TreeNode<K> right;
+	int height;
+	long hash;
+
+	/**
+	 * Constructor to initialize a new node with given data.
+	 *
+	 * @param data The value to be stored in the node.
+	 */
+	TreeNode(K data) {
+		this.data = data;
+		left = null;
+		right = null;
+		height = 0;
+	}
+}
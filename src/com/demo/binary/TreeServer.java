@@ -0,0 +1,337 @@
+package com.demo.binary;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Class serving a shared ordered (BST) tree of int values over a line-based
+ * command protocol, either on a local socket or on standard input and output.
+ *
+ * Each line holds one command and gets exactly one response line, in order.
+ * Clients may pipeline commands: responses are buffered and only flushed once
+ * no further input is waiting, so a batch of commands costs a single write.
+ * Every connection runs on its own virtual thread when the runtime provides
+ * them (JDK 21 or later), otherwise on a cached thread pool. Queries share a
+ * read lock and mutations take the write lock of the tree.
+ *
+ * <p><strong>Commands:</strong></p>
+ * <pre>
+ * INSERT v        OK
+ * DELETE v        OK | NOT_FOUND
+ * SEARCH v        TRUE | FALSE
+ * COUNT a b       number of values in [a, b]
+ * SUM a b         sum of the values in [a, b]
+ * RANGE a b [n]   up to n values of [a, b] in ascending order
+ * HEIGHT          height of the tree
+ * ISBST           TRUE | FALSE
+ * CLEAR           OK
+ * PING            PONG
+ * QUIT            BYE, then the connection is closed
+ * </pre>
+ * Malformed commands, and commands that fail while running, get a response
+ * starting with {@code ERR}; the connection stays open for the next command.
+ *
+ * <p><strong>How to Use:</strong></p>
+ * <pre>java com.demo.binary.TreeServer [port] [log directory]</pre>
+ * <pre>java com.demo.binary.TreeServer --pipe [log directory]</pre>
+ * With a log directory the tree is recovered from its {@link MutationLog} at
+ * startup and every mutation is durable before it is acknowledged.
+ */
+public class TreeServer implements Closeable {
+
+	/** Port used when none is given on the command line. */
+	public static final int DEFAULT_PORT = 7070;
+
+	private final BinaryTree<Integer> tree;
+	private final ReentrantReadWriteLock lock;
+	private final ExecutorService executor;
+	private ServerSocket serverSocket;
+
+	/**
+	 * Constructor to initialize a server over the given tree.
+	 *
+	 * @param tree The ordered tree shared by every client.
+	 */
+	public TreeServer(BinaryTree<Integer> tree) {
+		this.tree = tree;
+		lock = new ReentrantReadWriteLock();
+		executor = newExecutor();
+	}
+
+	/**
+	 * Helper method to create the executor running the connections, using
+	 * virtual threads when the runtime supports them.
+	 *
+	 * @return The executor.
+	 */
+	private static ExecutorService newExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool();
+		}
+	}
+
+	/**
+	 * Method to start accepting clients on a loopback socket. Returns once the
+	 * socket is bound.
+	 *
+	 * @param port The port to listen on, or 0 for any free port.
+	 * @return The port the server listens on.
+	 * @throws IOException If the socket cannot be bound.
+	 */
+	public int start(int port) throws IOException {
+		serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+		new Thread(this::acceptLoop, "tree-server-acceptor").start(); // Keeps the JVM alive until close()
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * Helper method accepting clients until the server socket is closed.
+	 */
+	private void acceptLoop() {
+		while (!serverSocket.isClosed()) {
+			try {
+				Socket socket = serverSocket.accept();
+				executor.execute(() -> {
+					try (socket) {
+						serve(socket.getInputStream(), socket.getOutputStream());
+					} catch (IOException e) {
+						// The client went away, nothing left to answer
+					} catch (RuntimeException e) {
+						System.err.println("Failed to serve a client: " + e);
+					}
+				});
+			} catch (IOException e) {
+				if (!serverSocket.isClosed()) {
+					System.err.println("Failed to accept a client: " + e.getMessage());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Method to serve one client until it sends QUIT or closes its input.
+	 *
+	 * @param input  The stream the commands are read from.
+	 * @param output The stream the responses are written to.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	public void serve(InputStream input, OutputStream output) throws IOException {
+		BufferedReader in = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+		Writer out = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+		String line;
+		while ((line = in.readLine()) != null) {
+			String response = execute(line);
+			out.write(response);
+			out.write('\n');
+			if (response.equals("BYE")) {
+				break;
+			}
+			if (!in.ready()) {
+				out.flush(); // Flush once per batch of pipelined commands
+			}
+		}
+		out.flush();
+	}
+
+	/**
+	 * Method to execute a single command against the tree.
+	 *
+	 * @param line The command line.
+	 * @return The response line, without the line terminator.
+	 */
+	public String execute(String line) {
+		String[] parts = line.trim().split("\\s+");
+		String command = parts[0].toUpperCase(Locale.ROOT);
+		try {
+			switch (command) {
+			case "INSERT":
+				return write(() -> {
+					BinaryTree.insertOrdered(tree, argument(parts, 1));
+					return "OK";
+				});
+			case "DELETE":
+				return write(() -> BinaryTree.removeOrdered(tree, argument(parts, 1)) ? "OK" : "NOT_FOUND");
+			case "CLEAR":
+				return write(() -> {
+					BinaryTree.clear(tree);
+					return "OK";
+				});
+			case "SEARCH":
+				return read(() -> {
+					int value = argument(parts, 1);
+					return RangeQuery.count(tree, value, value) > 0 ? "TRUE" : "FALSE";
+				});
+			case "COUNT":
+				return read(() -> Long.toString(RangeQuery.count(tree, argument(parts, 1), argument(parts, 2))));
+			case "SUM":
+				return read(() -> Long.toString(RangeQuery.sum(tree, argument(parts, 1), argument(parts, 2))));
+			case "RANGE":
+				return read(() -> range(argument(parts, 1), argument(parts, 2),
+						parts.length > 3 ? argument(parts, 3) : Integer.MAX_VALUE));
+			case "HEIGHT":
+				// Readers racing to fill the height cache all store the same values
+				return read(() -> Integer.toString(BinaryTree.cachedHeight(tree.root)));
+			case "ISBST":
+				// The Morris walk threads the tree while it runs, so it cannot share the read lock
+				return write(() -> new BSTValidator<Integer>(BSTValidator.DuplicatePolicy.RIGHT).validate(tree.root)
+						? "TRUE"
+						: "FALSE");
+			case "PING":
+				return "PONG";
+			case "QUIT":
+				return "BYE";
+			case "":
+				return "ERR empty command";
+			default:
+				return "ERR unknown command " + parts[0];
+			}
+		} catch (NumberFormatException e) {
+			return "ERR invalid number";
+		} catch (IllegalArgumentException e) {
+			return "ERR " + e.getMessage();
+		} catch (RuntimeException | StackOverflowError e) {
+			// A failing command gets its own response instead of ending the connection
+			return "ERR " + e.getClass().getSimpleName() + (e.getMessage() != null ? " " + e.getMessage() : "");
+		}
+	}
+
+	/**
+	 * Helper method to list the values of a range.
+	 *
+	 * @param from  The lower bound of the range.
+	 * @param to    The upper bound of the range.
+	 * @param limit The maximum number of values to list.
+	 * @return The values separated by spaces.
+	 */
+	private String range(int from, int to, int limit) {
+		StringBuilder values = new StringBuilder();
+		RangeQuery.Cursor<Integer> cursor = RangeQuery.ascending(tree, from, to);
+		for (int i = 0; i < limit && cursor.hasNext(); i++) {
+			if (i > 0) {
+				values.append(' ');
+			}
+			values.append(cursor.next());
+		}
+		return values.toString();
+	}
+
+	/**
+	 * Helper method to parse an int argument of a command.
+	 *
+	 * @param parts    The words of the command line.
+	 * @param position The position of the argument.
+	 * @return The value of the argument.
+	 * @throws IllegalArgumentException If the argument is missing or not a number.
+	 */
+	private static int argument(String[] parts, int position) {
+		if (position >= parts.length) {
+			throw new IllegalArgumentException("missing argument");
+		}
+		return Integer.parseInt(parts[position]);
+	}
+
+	/**
+	 * Interface for a command body run under one of the tree locks.
+	 */
+	private interface Action {
+		String run();
+	}
+
+	/**
+	 * Helper method to run a query under the read lock.
+	 *
+	 * @param action The query.
+	 * @return The response of the query.
+	 */
+	private String read(Action action) {
+		lock.readLock().lock();
+		try {
+			return action.run();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Helper method to run a mutation under the write lock. When the tree has a
+	 * mutation log, the response is held back until the mutation is durable; the
+	 * wait happens outside the lock so concurrent writers share one fsync.
+	 *
+	 * @param action The mutation.
+	 * @return The response of the mutation.
+	 */
+	private String write(Action action) {
+		String response;
+		long lsn;
+		lock.writeLock().lock();
+		try {
+			response = action.run();
+			lsn = tree.log != null ? tree.log.lastLsn() : 0;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		if (lsn > 0) {
+			tree.log.awaitDurable(lsn);
+		}
+		return response;
+	}
+
+	/**
+	 * Method to stop accepting clients, release the connection threads and close
+	 * the mutation log of the tree, if it has one.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			if (serverSocket != null) {
+				serverSocket.close();
+			}
+		} finally {
+			executor.shutdownNow();
+			if (tree.log != null) {
+				tree.log.close();
+			}
+		}
+	}
+
+	/**
+	 * Main method to run the server on a local port, or on standard input and
+	 * output with {@code --pipe}.
+	 *
+	 * @param args The port to listen on, or --pipe, then optionally the directory
+	 *             of the mutation log.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	public static void main(String[] args) throws IOException {
+		BinaryTree<Integer> tree = new BinaryTree<>();
+		if (args.length > 1) {
+			MutationLog.openIntegers(Paths.get(args[1])).recover(tree);
+		}
+		TreeServer server = new TreeServer(tree);
+		if (args.length > 0 && args[0].equals("--pipe")) {
+			server.serve(System.in, System.out);
+			server.close();
+			return;
+		}
+		int port = server.start(args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT);
+		System.out.println("Tree server listening on port " + port);
+	}
+}
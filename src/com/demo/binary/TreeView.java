@@ -0,0 +1,198 @@
+package com.demo.binary;
+
+import java.util.Comparator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Interface representing a read-only view of a binary tree. A view only decides
+ * which node is the root and which nodes are the children of a node; it never
+ * copies nodes, and it follows later changes of the tree it looks at.
+ *
+ * Views compose: {@code TreeView.of(tree).subtree(20).filter(v -> v > 0).mirror()}
+ * is the positive part of the subtree of 20, mirrored. Every query below works
+ * on any view through the three navigation methods.
+ *
+ * @param <K> The type of the values stored in the tree.
+ */
+public interface TreeView<K> {
+
+	/**
+	 * Method to get the root node of the view.
+	 *
+	 * @return The root node, or null if the view is empty.
+	 */
+	TreeNode<K> root();
+
+	/**
+	 * Method to get the left child of a node of the view.
+	 *
+	 * @param node A node of the view.
+	 * @return The left child in the view, or null.
+	 */
+	TreeNode<K> left(TreeNode<K> node);
+
+	/**
+	 * Method to get the right child of a node of the view.
+	 *
+	 * @param node A node of the view.
+	 * @return The right child in the view, or null.
+	 */
+	TreeNode<K> right(TreeNode<K> node);
+
+	/**
+	 * Method to get the view of a whole tree.
+	 *
+	 * @param tree The binary tree object.
+	 * @return A view following the current root of the tree.
+	 */
+	static <K> TreeView<K> of(BinaryTree<K> tree) {
+		return new TreeViews.Base<>(tree, null);
+	}
+
+	/**
+	 * Method to get the view of the tree below a node.
+	 *
+	 * @param root The root node of the tree.
+	 * @return A view of the tree.
+	 */
+	static <K> TreeView<K> of(TreeNode<K> root) {
+		return new TreeViews.Base<>(null, root);
+	}
+
+	/**
+	 * Method to get the mirror image of this view, where every left child is a
+	 * right child and the other way round.
+	 *
+	 * @return The mirrored view.
+	 */
+	default TreeView<K> mirror() {
+		return new TreeViews.Mirror<>(this);
+	}
+
+	/**
+	 * Method to get the subtree of the first node holding a value, in pre-order.
+	 * The node is searched again for every query.
+	 *
+	 * @param data The value of the subtree root.
+	 * @return The view of the subtree, empty if no node holds the value.
+	 */
+	default TreeView<K> subtree(K data) {
+		return new TreeViews.Subtree<>(this, data);
+	}
+
+	/**
+	 * Method to get the view keeping only the nodes whose value passes a test.
+	 * A node failing it is pruned with its whole subtree.
+	 *
+	 * @param filter The test each node must pass.
+	 * @return The filtered view.
+	 */
+	default TreeView<K> filter(Predicate<? super K> filter) {
+		return new TreeViews.Filtered<>(this, filter);
+	}
+
+	/**
+	 * Method to find the first node of the view holding a value, in pre-order.
+	 *
+	 * @param data The value to find.
+	 * @return The node, or null if no node of the view holds the value.
+	 */
+	default TreeNode<K> find(K data) {
+		return TreeViews.find(this, root(), data);
+	}
+
+	/**
+	 * Method to search the view for a value.
+	 *
+	 * @param data The value to search for.
+	 * @return true if a node of the view holds the value, false otherwise.
+	 */
+	default boolean search(K data) {
+		return find(data) != null;
+	}
+
+	/**
+	 * Method to perform a pre-order traversal of the view.
+	 *
+	 * @param action The action to perform on every value.
+	 */
+	default void preorderTraversal(Consumer<? super K> action) {
+		TreeViews.preorder(this, root(), action);
+	}
+
+	/**
+	 * Method to perform an in-order traversal of the view.
+	 *
+	 * @param action The action to perform on every value.
+	 */
+	default void inorderTraversal(Consumer<? super K> action) {
+		TreeViews.inorder(this, root(), action);
+	}
+
+	/**
+	 * Method to perform a post-order traversal of the view.
+	 *
+	 * @param action The action to perform on every value.
+	 */
+	default void postorderTraversal(Consumer<? super K> action) {
+		TreeViews.postorder(this, root(), action);
+	}
+
+	/**
+	 * Method to perform a level-order traversal of the view.
+	 *
+	 * @param action The action to perform on every value.
+	 */
+	default void levelOrderTraversal(Consumer<? super K> action) {
+		TreeViews.levelOrder(this, action);
+	}
+
+	/**
+	 * Method to count the nodes of the view.
+	 *
+	 * @return The number of nodes.
+	 */
+	default long size() {
+		return TreeViews.size(this, root());
+	}
+
+	/**
+	 * Method to calculate the height of the view, counted in nodes like
+	 * {@link BinaryTree#calculateHeight(TreeNode)}.
+	 *
+	 * @return The height of the view.
+	 */
+	default int height() {
+		return TreeViews.height(this, root());
+	}
+
+	/**
+	 * Method to check if the view is a full binary tree.
+	 *
+	 * @return true if every node of the view has zero or two children.
+	 */
+	default boolean isFull() {
+		return TreeViews.isFull(this, root());
+	}
+
+	/**
+	 * Method to check if the view is a complete binary tree.
+	 *
+	 * @return true if every level is filled from the left, false otherwise.
+	 */
+	default boolean isComplete() {
+		return TreeViews.isComplete(this);
+	}
+
+	/**
+	 * Method to check if the view is a BST, duplicates allowed in the right
+	 * subtree as placed by {@link BinaryTree#insertOrdered(BinaryTree, Object)}.
+	 *
+	 * @param comparator The ordering of the values, or null for the natural order.
+	 * @return true if the view is a BST, false otherwise.
+	 */
+	default boolean isBinarySearchTree(Comparator<? super K> comparator) {
+		return TreeViews.isBST(this, root(), null, null, comparator);
+	}
+}
@@ -0,0 +1,394 @@
+package com.demo.binary;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Class providing the views of {@link TreeView} and the walks behind its
+ * queries. The walks recurse on the left child and loop on the right one, like
+ * the other walks of this package.
+ */
+final class TreeViews {
+
+	private TreeViews() {
+	}
+
+	/**
+	 * Class representing the view of a whole tree, following its links as they
+	 * are.
+	 */
+	static final class Base<K> implements TreeView<K> {
+		private final BinaryTree<K> tree;
+		private final TreeNode<K> root;
+
+		/**
+		 * Constructor to initialize the view of a tree.
+		 *
+		 * @param tree The binary tree object whose current root is followed, or
+		 *             null.
+		 * @param root The fixed root node, used when there is no tree object.
+		 */
+		Base(BinaryTree<K> tree, TreeNode<K> root) {
+			this.tree = tree;
+			this.root = root;
+		}
+
+		@Override
+		public TreeNode<K> root() {
+			return tree != null ? tree.root : root;
+		}
+
+		@Override
+		public TreeNode<K> left(TreeNode<K> node) {
+			return node.left;
+		}
+
+		@Override
+		public TreeNode<K> right(TreeNode<K> node) {
+			return node.right;
+		}
+
+		@Override
+		public int height() {
+			return BinaryTree.cachedHeight(root()); // Real links, so the cached heights apply
+		}
+	}
+
+	/**
+	 * Class representing the mirror image of a view.
+	 */
+	static final class Mirror<K> implements TreeView<K> {
+		private final TreeView<K> view;
+
+		/**
+		 * Constructor to initialize the mirror image of a view.
+		 *
+		 * @param view The mirrored view.
+		 */
+		Mirror(TreeView<K> view) {
+			this.view = view;
+		}
+
+		@Override
+		public TreeNode<K> root() {
+			return view.root();
+		}
+
+		@Override
+		public TreeNode<K> left(TreeNode<K> node) {
+			return view.right(node);
+		}
+
+		@Override
+		public TreeNode<K> right(TreeNode<K> node) {
+			return view.left(node);
+		}
+
+		@Override
+		public TreeView<K> mirror() {
+			return view; // Mirroring twice gives the view back
+		}
+
+		@Override
+		public long size() {
+			return view.size();
+		}
+
+		@Override
+		public int height() {
+			return view.height();
+		}
+
+		@Override
+		public boolean isFull() {
+			return view.isFull();
+		}
+	}
+
+	/**
+	 * Class representing the subtree of a view below the first node holding a
+	 * value.
+	 */
+	static final class Subtree<K> implements TreeView<K> {
+		private final TreeView<K> view;
+		private final K data;
+
+		/**
+		 * Constructor to initialize the subtree of a view.
+		 *
+		 * @param view The view holding the subtree.
+		 * @param data The value of the subtree root.
+		 */
+		Subtree(TreeView<K> view, K data) {
+			this.view = view;
+			this.data = data;
+		}
+
+		@Override
+		public TreeNode<K> root() {
+			return view.find(data);
+		}
+
+		@Override
+		public TreeNode<K> left(TreeNode<K> node) {
+			return view.left(node);
+		}
+
+		@Override
+		public TreeNode<K> right(TreeNode<K> node) {
+			return view.right(node);
+		}
+	}
+
+	/**
+	 * Class representing a view pruned of the subtrees whose root fails a test.
+	 */
+	static final class Filtered<K> implements TreeView<K> {
+		private final TreeView<K> view;
+		private final Predicate<? super K> filter;
+
+		/**
+		 * Constructor to initialize a filtered view.
+		 *
+		 * @param view   The filtered view.
+		 * @param filter The test each node must pass.
+		 */
+		Filtered(TreeView<K> view, Predicate<? super K> filter) {
+			this.view = view;
+			this.filter = filter;
+		}
+
+		@Override
+		public TreeNode<K> root() {
+			return keep(view.root());
+		}
+
+		@Override
+		public TreeNode<K> left(TreeNode<K> node) {
+			return keep(view.left(node));
+		}
+
+		@Override
+		public TreeNode<K> right(TreeNode<K> node) {
+			return keep(view.right(node));
+		}
+
+		/**
+		 * Helper method to apply the test to a node.
+		 *
+		 * @param node A node of the filtered view, or null.
+		 * @return The node if it passes the test, null otherwise.
+		 */
+		private TreeNode<K> keep(TreeNode<K> node) {
+			return node != null && filter.test(node.data) ? node : null;
+		}
+	}
+
+	/**
+	 * Helper method to find the first node of a subtree holding a value, in
+	 * pre-order.
+	 *
+	 * @param view The view.
+	 * @param node The root node of the subtree.
+	 * @param data The value to find.
+	 * @return The node, or null if the value is absent.
+	 */
+	static <K> TreeNode<K> find(TreeView<K> view, TreeNode<K> node, K data) {
+		while (node != null) {
+			if (Objects.equals(node.data, data)) {
+				return node;
+			}
+			TreeNode<K> found = find(view, view.left(node), data);
+			if (found != null) {
+				return found;
+			}
+			node = view.right(node);
+		}
+		return null;
+	}
+
+	/**
+	 * Helper method to perform a pre-order traversal of a subtree.
+	 *
+	 * @param view   The view.
+	 * @param node   The root node of the subtree.
+	 * @param action The action to perform on every value.
+	 */
+	static <K> void preorder(TreeView<K> view, TreeNode<K> node, Consumer<? super K> action) {
+		while (node != null) {
+			action.accept(node.data);
+			preorder(view, view.left(node), action);
+			node = view.right(node);
+		}
+	}
+
+	/**
+	 * Helper method to perform an in-order traversal of a subtree.
+	 *
+	 * @param view   The view.
+	 * @param node   The root node of the subtree.
+	 * @param action The action to perform on every value.
+	 */
+	static <K> void inorder(TreeView<K> view, TreeNode<K> node, Consumer<? super K> action) {
+		while (node != null) {
+			inorder(view, view.left(node), action);
+			action.accept(node.data);
+			node = view.right(node);
+		}
+	}
+
+	/**
+	 * Helper method to perform a post-order traversal of a subtree.
+	 *
+	 * @param view   The view.
+	 * @param node   The root node of the subtree.
+	 * @param action The action to perform on every value.
+	 */
+	static <K> void postorder(TreeView<K> view, TreeNode<K> node, Consumer<? super K> action) {
+		if (node == null) {
+			return;
+		}
+		postorder(view, view.left(node), action);
+		postorder(view, view.right(node), action);
+		action.accept(node.data);
+	}
+
+	/**
+	 * Helper method to perform a level-order traversal of a view.
+	 *
+	 * @param view   The view.
+	 * @param action The action to perform on every value.
+	 */
+	static <K> void levelOrder(TreeView<K> view, Consumer<? super K> action) {
+		ArrayDeque<TreeNode<K>> queue = new ArrayDeque<>();
+		TreeNode<K> root = view.root();
+		if (root != null) {
+			queue.add(root);
+		}
+		while (!queue.isEmpty()) {
+			TreeNode<K> node = queue.poll();
+			action.accept(node.data);
+			TreeNode<K> left = view.left(node);
+			TreeNode<K> right = view.right(node);
+			if (left != null) {
+				queue.add(left);
+			}
+			if (right != null) {
+				queue.add(right);
+			}
+		}
+	}
+
+	/**
+	 * Helper method to count the nodes of a subtree.
+	 *
+	 * @param view The view.
+	 * @param node The root node of the subtree.
+	 * @return The number of nodes.
+	 */
+	static <K> long size(TreeView<K> view, TreeNode<K> node) {
+		long count = 0;
+		while (node != null) {
+			count += 1 + size(view, view.left(node));
+			node = view.right(node);
+		}
+		return count;
+	}
+
+	/**
+	 * Helper method to calculate the height of a subtree.
+	 *
+	 * @param view The view.
+	 * @param node The root node of the subtree.
+	 * @return The height of the subtree.
+	 */
+	static <K> int height(TreeView<K> view, TreeNode<K> node) {
+		if (node == null) {
+			return 0;
+		}
+		return Math.max(height(view, view.left(node)), height(view, view.right(node))) + 1;
+	}
+
+	/**
+	 * Helper method to check if a subtree is a full binary tree.
+	 *
+	 * @param view The view.
+	 * @param node The root node of the subtree.
+	 * @return true if every node has zero or two children, false otherwise.
+	 */
+	static <K> boolean isFull(TreeView<K> view, TreeNode<K> node) {
+		while (node != null) {
+			TreeNode<K> left = view.left(node);
+			TreeNode<K> right = view.right(node);
+			if ((left == null) != (right == null) || !isFull(view, left)) {
+				return false;
+			}
+			node = right;
+		}
+		return true;
+	}
+
+	/**
+	 * Helper method to check if a view is a complete binary tree.
+	 *
+	 * @param view The view.
+	 * @return true if every level is filled from the left, false otherwise.
+	 */
+	static <K> boolean isComplete(TreeView<K> view) {
+		ArrayDeque<TreeNode<K>> queue = new ArrayDeque<>();
+		TreeNode<K> root = view.root();
+		if (root != null) {
+			queue.add(root);
+		}
+		boolean flag = false; // Set once a missing child has been seen
+		while (!queue.isEmpty()) {
+			TreeNode<K> node = queue.poll();
+			TreeNode<K> left = view.left(node);
+			TreeNode<K> right = view.right(node);
+			if (left != null) {
+				if (flag) {
+					return false;
+				}
+				queue.add(left);
+			} else {
+				flag = true;
+			}
+			if (right != null) {
+				if (flag) {
+					return false;
+				}
+				queue.add(right);
+			} else {
+				flag = true;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Helper method to check if a subtree is a BST whose values lie in a range,
+	 * duplicates being allowed in right subtrees only.
+	 *
+	 * @param view       The view.
+	 * @param node       The root node of the subtree.
+	 * @param min        The smallest value allowed (inclusive), or null.
+	 * @param max        The end of the values allowed (exclusive), or null.
+	 * @param comparator The ordering of the values, or null for the natural order.
+	 * @return true if the subtree is a BST within the range, false otherwise.
+	 */
+	static <K> boolean isBST(TreeView<K> view, TreeNode<K> node, K min, K max, Comparator<? super K> comparator) {
+		while (node != null) {
+			if ((min != null && Keys.compare(node.data, min, comparator) < 0)
+					|| (max != null && Keys.compare(node.data, max, comparator) >= 0)
+					|| !isBST(view, view.left(node), min, node.data, comparator)) {
+				return false;
+			}
+			min = node.data;
+			node = view.right(node);
+		}
+		return true;
+	}
+}